@@ -0,0 +1,175 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.jooq.Query;
+import org.neo4j.cypherdsl.core.Statement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures a complete translation as well as its individual phases: Parsing SQL,
+ * building the Cypher-DSL statement from the jOOQ model and rendering the statement. One
+ * operation translates all SQL statements of one of the TCK documents in
+ * {@code src/test/resources}, with the table mappings given there. Run with
+ * {@code ./mvnw -Dbenchmark verify}, JMH options can be passed via
+ * {@code -Djmh.args="..."}, allocation rates are measured by default.
+ *
+ * @author Sql2cypher Contributors
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.AverageTime, Mode.Throughput })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TranslatorBenchmark {
+
+	private static final Pattern SQL_BLOCK = Pattern.compile("\\[source,sql,.*]");
+
+	private static final Pattern TABLE_MAPPINGS = Pattern.compile("table_mappings=([^,\\]]+)");
+
+	@Param({ "simple", "joins", "predicates", "expressions", "dml" })
+	private String corpus;
+
+	private List<String> statements;
+
+	private Translator translator;
+
+	private List<Query> queries;
+
+	@Setup
+	public void setup() {
+
+		var tableToLabelMappings = new HashMap<String, String>();
+		this.statements = readCorpus(this.corpus + ".adoc", tableToLabelMappings);
+		this.translator = Translator.with(TranslatorConfig.builder().withPrettyPrint(false)
+				.withTableToLabelMappings(tableToLabelMappings).build());
+		this.queries = this.statements.stream().map(this.translator::parse).toList();
+	}
+
+	/**
+	 * Reads the SQL statements of a TCK document. The table mappings of all statements
+	 * are merged, they don't contradict each other.
+	 * @param name the name of the document
+	 * @param tableToLabelMappings the map to collect the table mappings in
+	 * @return the SQL statements of the document
+	 */
+	private static List<String> readCorpus(String name, Map<String, String> tableToLabelMappings) {
+
+		var statements = new ArrayList<String>();
+		try (var reader = new BufferedReader(new InputStreamReader(
+				Objects.requireNonNull(TranslatorBenchmark.class.getResourceAsStream("/" + name), name),
+				StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!SQL_BLOCK.matcher(line).matches()) {
+					continue;
+				}
+				var mappings = TABLE_MAPPINGS.matcher(line);
+				if (mappings.find()) {
+					for (var mapping : mappings.group(1).split(";")) {
+						var tableAndLabel = mapping.trim().split(":");
+						tableToLabelMappings.putIfAbsent(tableAndLabel[0], tableAndLabel[1]);
+					}
+				}
+				reader.readLine();
+				var sql = new StringBuilder();
+				while ((line = reader.readLine()) != null && !line.equals("----")) {
+					sql.append(line).append('\n');
+				}
+				statements.add(sql.toString().strip());
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return statements;
+	}
+
+	@Benchmark
+	public void convert(Blackhole blackhole) {
+
+		for (var sql : this.statements) {
+			blackhole.consume(this.translator.convert(sql));
+		}
+	}
+
+	@Benchmark
+	public void parse(Blackhole blackhole) {
+
+		for (var sql : this.statements) {
+			blackhole.consume(this.translator.parse(sql));
+		}
+	}
+
+	@Benchmark
+	public void statement(Blackhole blackhole) {
+
+		for (var query : this.queries) {
+			blackhole.consume(this.translator.statement(query));
+		}
+	}
+
+	@Benchmark
+	public void render(FreshStatements fresh, Blackhole blackhole) {
+
+		for (var statement : fresh.statements) {
+			blackhole.consume(this.translator.render(statement));
+		}
+	}
+
+	/**
+	 * The renderer caches rendered statements by instance, so each invocation gets new
+	 * ones.
+	 */
+	@State(Scope.Thread)
+	public static class FreshStatements {
+
+		private List<Statement> statements;
+
+		@Setup(Level.Invocation)
+		public void setup(TranslatorBenchmark benchmark) {
+			this.statements = benchmark.queries.stream().map(benchmark.translator::statement).toList();
+		}
+
+	}
+
+}
@@ -18,5 +18,9 @@ module org.neo4j.sql2cypher {
     requires org.neo4j.cypherdsl.core;
     requires info.picocli;
 
+    exports org.neo4j.sql2cypher;
+
+    uses org.neo4j.sql2cypher.TranslatorExtension;
+
     opens org.neo4j.sql2cypher to info.picocli;
 }
\ No newline at end of file
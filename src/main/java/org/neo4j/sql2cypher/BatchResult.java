@@ -0,0 +1,38 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+/**
+ * The result of translating one statement of a batch. Exactly one of
+ * {@link #translation()} and {@link #failure()} is not {@literal null}.
+ * @param index the zero based position of the statement in the input
+ * @param sql the SQL statement
+ * @param translation the translation of the statement if it succeeded
+ * @param failure the reason why the statement could not be translated
+ * @author Sql2cypher Contributors
+ * @see Translator#convertAll(Iterable)
+ */
+public record BatchResult(long index, String sql, Translation translation, RuntimeException failure) {
+
+	/**
+	 * Indicates whether the statement could be translated.
+	 * @return {@literal true} if the statement could be translated
+	 */
+	public boolean isSuccess() {
+		return this.failure == null;
+	}
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+/**
+ * A point in time snapshot of the counters of a translation cache.
+ * @param hits the number of lookups served from the cache
+ * @param misses the number of lookups that required a translation
+ * @param evictions the number of entries evicted or rejected due to the size bound
+ * @param size the number of entries currently in the cache
+ * @author Sql2cypher Contributors
+ */
+public record CacheStatistics(long hits, long misses, long evictions, long size) {
+
+	/**
+	 * An empty set of statistics, used when no cache is configured.
+	 */
+	public static final CacheStatistics EMPTY = new CacheStatistics(0, 0, 0, 0);
+
+	/**
+	 * Computes the ratio of hits to all lookups.
+	 * @return the hit rate, {@literal 0} if there haven't been any lookups yet
+	 */
+	public double hitRate() {
+		long requests = this.hits + this.misses;
+		return (requests != 0) ? (double) this.hits / requests : 0.0;
+	}
+
+}
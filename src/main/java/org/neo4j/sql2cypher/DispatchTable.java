@@ -0,0 +1,128 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps types of jOOQ query parts to the handlers translating them. Handlers are
+ * registered per type, usually a {@code QOM} interface, and resolved against the runtime
+ * class of a query part in registration order, so that the first handler whose type is
+ * assignable from the class wins, exactly like a chain of {@code instanceof} checks
+ * would. The resolution is done only once per runtime class and cached in a
+ * {@link ClassValue}, making each subsequent lookup a constant time operation independent
+ * of the number of registered handlers.
+ *
+ * @param <N> the type of the query parts
+ * @param <C> the type of the context passed to the handlers
+ * @param <R> the type of the translation results
+ * @author Sql2cypher Contributors
+ */
+final class DispatchTable<N, C, R> {
+
+	static <N, C, R> Builder<N, C, R> builder() {
+		return new Builder<>();
+	}
+
+	private final List<Map.Entry<Class<?>, Handler<Object, C, R>>> handlers;
+
+	private final Handler<Object, C, R> fallback;
+
+	private final ClassValue<Handler<Object, C, R>> resolvedHandlers = new ClassValue<>() {
+		@Override
+		protected Handler<Object, C, R> computeValue(Class<?> type) {
+			for (var entry : DispatchTable.this.handlers) {
+				if (entry.getKey().isAssignableFrom(type)) {
+					return entry.getValue();
+				}
+			}
+			return DispatchTable.this.fallback;
+		}
+	};
+
+	private DispatchTable(List<Map.Entry<Class<?>, Handler<Object, C, R>>> handlers, Handler<Object, C, R> fallback) {
+		this.handlers = List.copyOf(handlers);
+		this.fallback = fallback;
+	}
+
+	/**
+	 * Translates the given query part with the handler registered for its type.
+	 * @param context the context of the current translation
+	 * @param node the query part to translate
+	 * @return the translated query part
+	 */
+	R apply(C context, N node) {
+		return this.resolvedHandlers.get(node.getClass()).apply(context, node);
+	}
+
+	/**
+	 * A handler translating one type of query part.
+	 *
+	 * @param <T> the type of the query part
+	 * @param <C> the type of the context
+	 * @param <R> the type of the result
+	 */
+	@FunctionalInterface
+	interface Handler<T, C, R> {
+
+		R apply(C context, T node);
+
+	}
+
+	/**
+	 * Builder for dispatch tables.
+	 *
+	 * @param <N> the type of the query parts
+	 * @param <C> the type of the context passed to the handlers
+	 * @param <R> the type of the translation results
+	 */
+	static final class Builder<N, C, R> {
+
+		private final List<Map.Entry<Class<?>, Handler<Object, C, R>>> handlers = new ArrayList<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * Registers a handler for the given type, taking precedence over all handlers
+		 * registered later on.
+		 * @param type the type of query parts handled
+		 * @param handler the handler
+		 * @param <T> the type of query parts handled
+		 * @return this builder
+		 */
+		@SuppressWarnings("unchecked")
+		<T> Builder<N, C, R> on(Class<? super T> type, Handler<T, C, R> handler) {
+			this.handlers.add(Map.entry(type, (Handler<Object, C, R>) handler));
+			return this;
+		}
+
+		/**
+		 * Finishes the table.
+		 * @param fallback the handler used for all query parts without a registered
+		 * handler
+		 * @return a new, immutable dispatch table
+		 */
+		@SuppressWarnings("unchecked")
+		DispatchTable<N, C, R> build(Handler<? super N, C, R> fallback) {
+			return new DispatchTable<>(this.handlers, (Handler<Object, C, R>) fallback);
+		}
+
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import org.jooq.Field;
+import org.neo4j.cypherdsl.core.Condition;
+import org.neo4j.cypherdsl.core.Expression;
+
+/**
+ * Collects the handlers of all {@link TranslatorExtension extensions} of a translator.
+ *
+ * @author Sql2cypher Contributors
+ */
+final class HandlerRegistry implements TranslatorExtension.Registry {
+
+	private final List<Map.Entry<Class<?>, TranslatorExtension.ExpressionHandler<Field<?>>>> expressionHandlers = new ArrayList<>();
+
+	private final List<Map.Entry<Class<?>, TranslatorExtension.ConditionHandler<org.jooq.Condition>>> conditionHandlers = new ArrayList<>();
+
+	private final Map<String, TranslatorExtension.FunctionHandler> functionHandlers = new HashMap<>();
+
+	static HandlerRegistry of(List<TranslatorExtension> extensions) {
+
+		var registry = new HandlerRegistry();
+		for (var extension : extensions) {
+			extension.register(registry);
+		}
+		return registry;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T extends Field<?>> TranslatorExtension.Registry expression(Class<? super T> type,
+			TranslatorExtension.ExpressionHandler<T> handler) {
+
+		this.expressionHandlers.add(Map.entry(Objects.requireNonNull(type),
+				(TranslatorExtension.ExpressionHandler<Field<?>>) Objects.requireNonNull(handler)));
+		return this;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T extends org.jooq.Condition> TranslatorExtension.Registry condition(Class<? super T> type,
+			TranslatorExtension.ConditionHandler<T> handler) {
+
+		this.conditionHandlers.add(Map.entry(Objects.requireNonNull(type),
+				(TranslatorExtension.ConditionHandler<org.jooq.Condition>) Objects.requireNonNull(handler)));
+		return this;
+	}
+
+	@Override
+	public TranslatorExtension.Registry function(String name, TranslatorExtension.FunctionHandler handler) {
+
+		this.functionHandlers.put(normalizeFunctionName(name), Objects.requireNonNull(handler));
+		return this;
+	}
+
+	static String normalizeFunctionName(String name) {
+		return name.toLowerCase(Locale.ROOT);
+	}
+
+	boolean isEmpty() {
+		return this.expressionHandlers.isEmpty() && this.conditionHandlers.isEmpty() && this.functionHandlers.isEmpty();
+	}
+
+	Map<String, TranslatorExtension.FunctionHandler> getFunctionHandlers() {
+		return Map.copyOf(this.functionHandlers);
+	}
+
+	@SuppressWarnings("unchecked")
+	<C extends TranslatorExtension.Context> void contributeExpressions(
+			DispatchTable.Builder<Field<?>, C, Expression> builder) {
+
+		for (var entry : this.expressionHandlers) {
+			builder.on((Class<Field<?>>) entry.getKey(), entry.getValue()::apply);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	<C extends TranslatorExtension.Context> void contributeConditions(
+			DispatchTable.Builder<org.jooq.Condition, C, Condition> builder) {
+
+		for (var entry : this.conditionHandlers) {
+			builder.on((Class<org.jooq.Condition>) entry.getKey(), entry.getValue()::apply);
+		}
+	}
+
+}
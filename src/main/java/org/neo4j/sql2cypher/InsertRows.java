@@ -0,0 +1,79 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.jooq.Field;
+import org.jooq.Param;
+import org.jooq.Row;
+
+/**
+ * The rows of an {@code INSERT} statement as a list of maps from column names to values,
+ * to be passed as a parameter. The maps are created lazily when a row is accessed, so
+ * that the values of large inserts are not copied upfront.
+ *
+ * @author Sql2cypher Contributors
+ */
+final class InsertRows extends AbstractList<Map<String, Object>> implements RandomAccess {
+
+	private final List<? extends Field<?>> columns;
+
+	private final List<? extends Row> rows;
+
+	InsertRows(List<? extends Field<?>> columns, List<? extends Row> rows) {
+		this.columns = columns;
+		this.rows = rows;
+	}
+
+	/**
+	 * Checks whether all values of the given rows are literals.
+	 * @param rows the rows to check
+	 * @return {@literal true} if the rows can be passed as a parameter
+	 */
+	static boolean containsOnlyLiterals(List<? extends Row> rows) {
+
+		for (var row : rows) {
+			for (var field : row.fields()) {
+				if (!(field instanceof Param<?> p) || !p.$inline()) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public Map<String, Object> get(int index) {
+
+		var row = this.rows.get(index);
+		var properties = new LinkedHashMap<String, Object>(this.columns.size() * 2);
+		for (int i = 0; i < this.columns.size(); ++i) {
+			properties.put(this.columns.get(i).getName(), ((Param<?>) row.field(i)).getValue());
+		}
+		return properties;
+	}
+
+	@Override
+	public int size() {
+		return this.rows.size();
+	}
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jooq.tools.json.JSONParser;
+import org.jooq.tools.json.ParseException;
+
+/**
+ * An immutable catalog of mappings from tables to labels and from join columns to
+ * relationship types. The catalog indexes the mappings once, so that they can be looked
+ * up without any allocation during translation. Catalogs can be loaded from a JSON
+ * document of the following form: <pre>
+ * {
+ *   "tableToLabelMappings": {
+ *     "people": "Person",
+ *     "movies": "Movie"
+ *   },
+ *   "joinColumnsToTypeMappings": {
+ *     "people.directed": "DIRECTED"
+ *   }
+ * }
+ * </pre>
+ *
+ * @author Sql2cypher Contributors
+ * @see TranslatorConfig.Builder#withMappingCatalog(MappingCatalog)
+ * @see Translator#reload(MappingCatalog)
+ */
+public final class MappingCatalog {
+
+	private static final MappingCatalog EMPTY = new MappingCatalog(Map.of(), Map.of());
+
+	private final Map<String, String> tableToLabelMappings;
+
+	private final Map<String, String> joinColumnsToTypeMappings;
+
+	/**
+	 * Relationship types by table and join column.
+	 */
+	private final Map<String, Map<String, String>> relationshipTypes;
+
+	private MappingCatalog(Map<String, String> tableToLabelMappings, Map<String, String> joinColumnsToTypeMappings) {
+
+		this.tableToLabelMappings = Map.copyOf(tableToLabelMappings);
+		this.joinColumnsToTypeMappings = Map.copyOf(joinColumnsToTypeMappings);
+
+		var types = new HashMap<String, Map<String, String>>();
+		this.joinColumnsToTypeMappings.forEach((k, v) -> {
+			var tableAndColumnName = k.split("\\.");
+			if (tableAndColumnName.length != 2) {
+				throw new IllegalArgumentException("Invalid join column " + k + ", expected <table>.<column>");
+			}
+			types.computeIfAbsent(tableAndColumnName[0], (t) -> new HashMap<>()).put(tableAndColumnName[1], v);
+		});
+		this.relationshipTypes = Map.copyOf(types);
+	}
+
+	/**
+	 * Provides a catalog without any mappings.
+	 * @return an empty catalog
+	 */
+	public static MappingCatalog empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Creates a new catalog from the given mappings.
+	 * @param tableToLabelMappings labels by table name
+	 * @param joinColumnsToTypeMappings relationship types by join column, qualified with
+	 * the name of its table
+	 * @return a new catalog
+	 */
+	public static MappingCatalog of(Map<String, String> tableToLabelMappings,
+			Map<String, String> joinColumnsToTypeMappings) {
+
+		if (tableToLabelMappings.isEmpty() && joinColumnsToTypeMappings.isEmpty()) {
+			return EMPTY;
+		}
+		return new MappingCatalog(tableToLabelMappings, joinColumnsToTypeMappings);
+	}
+
+	/**
+	 * Reads a catalog from a JSON file.
+	 * @param file the file to read
+	 * @return a new catalog
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if the file does not contain a valid catalog
+	 */
+	public static MappingCatalog read(Path file) throws IOException {
+
+		try (var reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			return read(reader);
+		}
+	}
+
+	/**
+	 * Reads a catalog from a JSON document.
+	 * @param reader the source of the document
+	 * @return a new catalog
+	 * @throws IOException if the document cannot be read
+	 * @throws IllegalArgumentException if the document is not a valid catalog
+	 */
+	public static MappingCatalog read(Reader reader) throws IOException {
+
+		Object document;
+		try {
+			document = new JSONParser().parse(reader);
+		}
+		catch (ParseException ex) {
+			throw new IllegalArgumentException("Invalid mapping catalog: " + ex.getMessage(), ex);
+		}
+		if (!(document instanceof Map<?, ?> catalog)) {
+			throw new IllegalArgumentException("Invalid mapping catalog, expected a JSON object");
+		}
+		return of(mappings(catalog, "tableToLabelMappings"), mappings(catalog, "joinColumnsToTypeMappings"));
+	}
+
+	private static Map<String, String> mappings(Map<?, ?> catalog, String key) {
+
+		var value = catalog.get(key);
+		if (value == null) {
+			return Map.of();
+		}
+		if (!(value instanceof Map<?, ?> mappings)) {
+			throw new IllegalArgumentException("Invalid mapping catalog, expected " + key + " to be a JSON object");
+		}
+
+		var result = new HashMap<String, String>();
+		mappings.forEach((k, v) -> {
+			if (!(v instanceof String s)) {
+				throw new IllegalArgumentException("Invalid mapping catalog, expected a string for " + key + "." + k);
+			}
+			result.put((String) k, s);
+		});
+		return result;
+	}
+
+	public Map<String, String> getTableToLabelMappings() {
+		return this.tableToLabelMappings;
+	}
+
+	public Map<String, String> getJoinColumnsToTypeMappings() {
+		return this.joinColumnsToTypeMappings;
+	}
+
+	/**
+	 * Looks up the label of a table.
+	 * @param table the name of the table
+	 * @return the label of the table, its name if it is not mapped
+	 */
+	String label(String table) {
+		return this.tableToLabelMappings.getOrDefault(table, table);
+	}
+
+	/**
+	 * Looks up the relationship type of a join column.
+	 * @param table the name of the table the join column belongs to
+	 * @param column the name of the join column
+	 * @return the relationship type or {@literal null} if the join column is not mapped
+	 */
+	String relationshipType(String table, String column) {
+
+		var columns = this.relationshipTypes.get(table);
+		return (columns != null) ? columns.get(column) : null;
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiFunction;
+
+/**
+ * Translates statements on a dedicated fork-join pool while handing out the results in
+ * input order. At most a fixed multiple of the degree of parallelism of statements is in
+ * flight at any time, so that arbitrary large inputs can be translated with constant
+ * memory. The pool is shut down once the input is exhausted or this iterator is closed.
+ *
+ * @author Sql2cypher Contributors
+ */
+final class ParallelTranslations implements Iterator<BatchResult>, AutoCloseable {
+
+	private static final int TASKS_PER_WORKER = 4;
+
+	private final Iterator<String> input;
+
+	private final BiFunction<Long, String, BatchResult> translator;
+
+	private final ForkJoinPool pool;
+
+	private final int maxInFlight;
+
+	private final ArrayDeque<ForkJoinTask<BatchResult>> inFlight;
+
+	private long index = 0;
+
+	ParallelTranslations(Iterator<String> input, BiFunction<Long, String, BatchResult> translator, int parallelism) {
+
+		this.input = input;
+		this.translator = translator;
+		this.pool = new ForkJoinPool(parallelism);
+		this.maxInFlight = parallelism * TASKS_PER_WORKER;
+		this.inFlight = new ArrayDeque<>(this.maxInFlight);
+	}
+
+	@Override
+	public boolean hasNext() {
+
+		fill();
+		if (this.inFlight.isEmpty()) {
+			this.pool.shutdown();
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public BatchResult next() {
+
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		var result = this.inFlight.removeFirst().join();
+		fill();
+		return result;
+	}
+
+	@Override
+	public void close() {
+		this.pool.shutdownNow();
+	}
+
+	private void fill() {
+
+		while (this.inFlight.size() < this.maxInFlight && this.input.hasNext()) {
+			long currentIndex = this.index++;
+			var sql = this.input.next();
+			this.inFlight.addLast(this.pool.submit(() -> this.translator.apply(currentIndex, sql)));
+		}
+	}
+
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+import org.jooq.tools.json.JSONParser;
+import org.jooq.tools.json.ParseException;
+
+/**
+ * Derives a {@link MappingCatalog} from an offline export of a Neo4j schema. Two formats
+ * are supported:
+ * <ul>
+ * <li>The result of {@code CALL db.schema.visualization()} saved as JSON, either as
+ * object or as array of objects with {@code nodes} and {@code relationships}.
+ * Relationships may refer to their start and end nodes by id or contain them inline.</li>
+ * <li>The result of {@code CALL apoc.meta.schema()} saved as JSON, with or without the
+ * surrounding {@code value} column.</li>
+ * </ul>
+ * Each label is mapped to a table, named by a configurable strategy that defaults to the
+ * lower case label. Each relationship type is mapped to a join table of the same name and
+ * to a join column on the table of its start node, so that joining the start table to the
+ * end table on that column yields the relationship in its stored direction. For example
+ * {@code (:Person)-[:DIRECTED]->(:Movie)} yields the mappings {@code person -> Person},
+ * {@code movie -> Movie}, {@code directed -> DIRECTED} and
+ * {@code person.directed -> DIRECTED}.
+ *
+ * @author Sql2cypher Contributors
+ * @see TranslatorConfig.Builder#withMappingCatalog(MappingCatalog)
+ */
+public final class SchemaImporter {
+
+	private static final UnaryOperator<String> DEFAULT_NAMING_STRATEGY = (name) -> name.toLowerCase(Locale.ROOT);
+
+	/**
+	 * Reads a schema export from a JSON file, using lower case labels and relationship
+	 * types as table and column names.
+	 * @param file the file to read
+	 * @return a catalog with mappings for all labels and relationship types in the schema
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if the file does not contain a supported schema
+	 * export
+	 */
+	public static MappingCatalog importSchema(Path file) throws IOException {
+
+		try (var reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			return importSchema(reader, DEFAULT_NAMING_STRATEGY);
+		}
+	}
+
+	/**
+	 * Reads a schema export from a JSON document.
+	 * @param reader the source of the document
+	 * @param namingStrategy derives table and column names from labels and relationship
+	 * types
+	 * @return a catalog with mappings for all labels and relationship types in the schema
+	 * @throws IOException if the document cannot be read
+	 * @throws IllegalArgumentException if the document is not a supported schema export
+	 */
+	public static MappingCatalog importSchema(Reader reader, UnaryOperator<String> namingStrategy) throws IOException {
+
+		Object document;
+		try {
+			document = new JSONParser().parse(reader);
+		}
+		catch (ParseException ex) {
+			throw new IllegalArgumentException("Invalid schema export: " + ex.getMessage(), ex);
+		}
+
+		var importer = new SchemaImporter(Objects.requireNonNull(namingStrategy));
+		importer.importDocument(document);
+		return MappingCatalog.of(importer.tableToLabelMappings, importer.joinColumnsToTypeMappings);
+	}
+
+	private final UnaryOperator<String> namingStrategy;
+
+	private final Map<String, String> tableToLabelMappings = new HashMap<>();
+
+	private final Map<String, String> joinColumnsToTypeMappings = new HashMap<>();
+
+	private SchemaImporter(UnaryOperator<String> namingStrategy) {
+		this.namingStrategy = namingStrategy;
+	}
+
+	private void importDocument(Object document) {
+
+		if (document instanceof List<?> rows) {
+			for (var row : rows) {
+				importDocument(row);
+			}
+		}
+		else if (document instanceof Map<?, ?> map && map.containsKey("nodes")) {
+			importVisualization(map);
+		}
+		else if (document instanceof Map<?, ?> map && map.get("value") instanceof Map<?, ?> value) {
+			importMetaSchema(value);
+		}
+		else if (document instanceof Map<?, ?> map) {
+			importMetaSchema(map);
+		}
+		else {
+			throw new IllegalArgumentException("Invalid schema export, expected a JSON object or array");
+		}
+	}
+
+	private void importVisualization(Map<?, ?> visualization) {
+
+		var labelsById = new HashMap<Object, String>();
+		for (var node : list(visualization.get("nodes"))) {
+			var label = label(node);
+			addLabel(label);
+			var id = id(node);
+			if (id != null) {
+				labelsById.put(id, label);
+			}
+		}
+
+		for (var relationship : list(visualization.get("relationships"))) {
+			var properties = map(relationship.get("properties"));
+			var type = string(relationship.containsKey("type") ? relationship.get("type") : properties.get("name"),
+					"relationship type");
+			var start = relationship.containsKey("start") ? relationship.get("start") : relationship.get("startNode");
+			var startLabel = (start instanceof Map<?, ?> startNode) ? label(startNode) : labelsById.get(start);
+			if (startLabel == null) {
+				throw new IllegalArgumentException("Invalid schema export, unknown start node of " + type);
+			}
+			addRelationship(startLabel, type);
+		}
+	}
+
+	private void importMetaSchema(Map<?, ?> metaSchema) {
+
+		metaSchema.forEach((name, entry) -> {
+			var definition = map(entry);
+			if (!"node".equals(definition.get("type"))) {
+				return;
+			}
+			var label = string(name, "label");
+			addLabel(label);
+			map(definition.get("relationships")).forEach((type, relationship) -> {
+				if ("out".equals(map(relationship).get("direction"))) {
+					addRelationship(label, string(type, "relationship type"));
+				}
+			});
+		});
+	}
+
+	private void addLabel(String label) {
+		this.tableToLabelMappings.put(this.namingStrategy.apply(label), label);
+	}
+
+	private void addRelationship(String startLabel, String type) {
+
+		var name = this.namingStrategy.apply(type);
+		this.tableToLabelMappings.putIfAbsent(name, type);
+		this.joinColumnsToTypeMappings.put(this.namingStrategy.apply(startLabel) + "." + name, type);
+	}
+
+	private static String label(Map<?, ?> node) {
+
+		if (node.get("labels") instanceof List<?> labels && !labels.isEmpty()) {
+			return string(labels.get(0), "label");
+		}
+		return string(node.containsKey("name") ? node.get("name") : map(node.get("properties")).get("name"), "label");
+	}
+
+	private static Object id(Map<?, ?> node) {
+
+		for (var key : List.of("identity", "id", "elementId")) {
+			if (node.containsKey(key)) {
+				return node.get(key);
+			}
+		}
+		return null;
+	}
+
+	private static List<Map<?, ?>> list(Object value) {
+
+		if (value == null) {
+			return List.of();
+		}
+		if (!(value instanceof List<?> list)) {
+			throw new IllegalArgumentException("Invalid schema export, expected an array but got " + value);
+		}
+		return list.stream().<Map<?, ?>>map(SchemaImporter::map).toList();
+	}
+
+	private static Map<?, ?> map(Object value) {
+
+		if (value == null) {
+			return Map.of();
+		}
+		if (!(value instanceof Map<?, ?> map)) {
+			throw new IllegalArgumentException("Invalid schema export, expected an object but got " + value);
+		}
+		return map;
+	}
+
+	private static String string(Object value, String what) {
+
+		if (!(value instanceof String s) || s.isBlank()) {
+			throw new IllegalArgumentException("Invalid schema export, missing or invalid " + what);
+		}
+		return s;
+	}
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits a stream of characters into SQL statements. Statements are terminated by a
+ * semicolon or a new line, unless those appear inside a quoted literal, a quoted
+ * identifier or a block comment. Line comments are dropped, blank statements are skipped.
+ * Only the statement currently being read is held in memory.
+ *
+ * @author Sql2cypher Contributors
+ */
+final class StatementReader implements Iterator<String> {
+
+	private final Reader reader;
+
+	private final StringBuilder buffer = new StringBuilder();
+
+	private String next;
+
+	private boolean exhausted;
+
+	StatementReader(Reader reader) {
+		this.reader = reader;
+	}
+
+	@Override
+	public boolean hasNext() {
+
+		if (this.next == null && !this.exhausted) {
+			try {
+				this.next = read();
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+		return this.next != null;
+	}
+
+	@Override
+	public String next() {
+
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		var result = this.next;
+		this.next = null;
+		return result;
+	}
+
+	private String read() throws IOException {
+
+		int c;
+		while ((c = this.reader.read()) != -1) {
+			if (c == ';' || c == '\n') {
+				var statement = flush();
+				if (statement != null) {
+					return statement;
+				}
+			}
+			else if (c == '\'' || c == '"' || c == '`') {
+				this.buffer.append((char) c);
+				readUntil((char) c);
+			}
+			else if (c == '-' && endsWith('-')) {
+				this.buffer.setLength(this.buffer.length() - 1);
+				skipLineComment();
+				var statement = flush();
+				if (statement != null) {
+					return statement;
+				}
+			}
+			else if (c == '*' && endsWith('/')) {
+				this.buffer.append('*');
+				readBlockComment();
+			}
+			else {
+				this.buffer.append((char) c);
+			}
+		}
+		this.exhausted = true;
+		return flush();
+	}
+
+	private void readUntil(char quote) throws IOException {
+
+		int c;
+		while ((c = this.reader.read()) != -1) {
+			this.buffer.append((char) c);
+			if (c == quote) {
+				return;
+			}
+		}
+	}
+
+	private void skipLineComment() throws IOException {
+
+		int c;
+		do {
+			c = this.reader.read();
+		}
+		while (c != -1 && c != '\n');
+	}
+
+	private void readBlockComment() throws IOException {
+
+		int c;
+		int previous = -1;
+		while ((c = this.reader.read()) != -1) {
+			this.buffer.append((char) c);
+			if (c == '/' && previous == '*') {
+				return;
+			}
+			previous = c;
+		}
+	}
+
+	private boolean endsWith(char c) {
+		return this.buffer.length() > 0 && this.buffer.charAt(this.buffer.length() - 1) == c;
+	}
+
+	private String flush() {
+
+		var statement = this.buffer.toString().strip();
+		this.buffer.setLength(0);
+		return statement.isEmpty() ? null : statement;
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import org.jooq.Query;
+import org.jooq.Select;
+import org.jooq.impl.QOM;
+
+/**
+ * The type of a translated SQL statement.
+ *
+ * @author Sql2cypher Contributors
+ */
+public enum StatementType {
+
+	/**
+	 * A {@code SELECT} statement.
+	 */
+	SELECT,
+
+	/**
+	 * An {@code INSERT} statement.
+	 */
+	INSERT,
+
+	/**
+	 * An {@code UPDATE} statement.
+	 */
+	UPDATE,
+
+	/**
+	 * A {@code DELETE} statement.
+	 */
+	DELETE,
+
+	/**
+	 * A {@code TRUNCATE} statement.
+	 */
+	TRUNCATE,
+
+	/**
+	 * Any other statement, which is not supported by the translator.
+	 */
+	OTHER;
+
+	static StatementType of(Query query) {
+
+		if (query instanceof Select<?>) {
+			return SELECT;
+		}
+		else if (query instanceof QOM.Insert<?>) {
+			return INSERT;
+		}
+		else if (query instanceof QOM.Update<?>) {
+			return UPDATE;
+		}
+		else if (query instanceof QOM.Delete<?>) {
+			return DELETE;
+		}
+		else if (query instanceof QOM.Truncate<?>) {
+			return TRUNCATE;
+		}
+		return OTHER;
+	}
+
+}
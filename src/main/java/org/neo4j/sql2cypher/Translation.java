@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The result of translating a single SQL statement.
+ * @param cypher the Cypher statement
+ * @param parameters the parameters of the Cypher statement, including any literals that
+ * have been extracted from the SQL statement
+ * @param statementType the type of the SQL statement
+ * @param labels the node labels the Cypher statement refers to
+ * @param relationshipTypes the relationship types the Cypher statement refers to
+ * @author Sql2cypher Contributors
+ * @see Translator#translate(String)
+ */
+public record Translation(String cypher, Map<String, Object> parameters, StatementType statementType,
+		Set<String> labels, Set<String> relationshipTypes) {
+
+	/**
+	 * Makes sure the parameters, labels and types are not modifiable.
+	 * @param cypher the Cypher statement
+	 * @param parameters the parameters of the Cypher statement
+	 * @param statementType the type of the SQL statement
+	 * @param labels the node labels the Cypher statement refers to
+	 * @param relationshipTypes the relationship types the Cypher statement refers to
+	 */
+	public Translation {
+		parameters = (parameters != null) ? Collections.unmodifiableMap(parameters) : Map.of();
+		labels = (labels != null) ? Set.copyOf(labels) : Set.of();
+		relationshipTypes = (relationshipTypes != null) ? Set.copyOf(relationshipTypes) : Set.of();
+	}
+
+	/**
+	 * Indicates whether the Cypher statement only reads data, so that it can be routed to
+	 * a read replica. Only translations of {@code SELECT} statements are read-only.
+	 * @return {@literal true} if the Cypher statement does not write
+	 */
+	public boolean isReadOnly() {
+		return this.statementType == StatementType.SELECT;
+	}
+
+	/**
+	 * Creates a translation of a statement with the same shape as this one.
+	 * @param newParameters the parameters of the statement
+	 * @return a new translation
+	 */
+	Translation withParameters(Map<String, Object> newParameters) {
+		return new Translation(this.cypher, newParameters, this.statementType, this.labels, this.relationshipTypes);
+	}
+
+}
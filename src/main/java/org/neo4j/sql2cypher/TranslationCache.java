@@ -0,0 +1,367 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A size bounded, concurrent cache for translations. The cache is split into a fixed
+ * number of segments, each guarded by its own lock, so that concurrent lookups of
+ * different keys rarely contend. Values are computed outside any lock; two threads
+ * missing the same key concurrently might both compute it, the last one wins.
+ * <p>
+ * Two eviction policies are supported:
+ * <ul>
+ * <li>{@link TranslatorConfig.CacheEvictionPolicy#LRU}: evicts the least recently used
+ * entry of a segment</li>
+ * <li>{@link TranslatorConfig.CacheEvictionPolicy#W_TINY_LFU}: new entries go into a
+ * small LRU window. Entries leaving the window are only admitted to the main region if
+ * they have been requested more often than the main region's eviction candidate, using an
+ * approximate frequency sketch. This keeps one-off statements from flushing out the
+ * frequently used ones.</li>
+ * </ul>
+ *
+ * @param <V> the type of the cached values
+ * @author Sql2cypher Contributors
+ */
+final class TranslationCache<V> {
+
+	private static final int MAX_SEGMENTS = 16;
+
+	private final Segment<V>[] segments;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	TranslationCache(int maximumSize, TranslatorConfig.CacheEvictionPolicy evictionPolicy) {
+
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("The maximum size of a cache must be greater than 0");
+		}
+
+		int numberOfSegments = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, maximumSize / MAX_SEGMENTS)));
+		int segmentSize = (maximumSize + numberOfSegments - 1) / numberOfSegments;
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Segment<V>[] newSegments = new Segment[numberOfSegments];
+		for (int i = 0; i < numberOfSegments; ++i) {
+			newSegments[i] = new Segment<>(segmentSize, evictionPolicy);
+		}
+		this.segments = newSegments;
+	}
+
+	/**
+	 * Retrieves the value for the given SQL statement or computes it. The statement is
+	 * normalized before being used as a key, the loader however receives the original
+	 * statement.
+	 * @param sql the SQL statement
+	 * @param loader the function computing the value on a cache miss
+	 * @return the cached or computed value
+	 */
+	V get(String sql, Function<String, V> loader) {
+		return get(sql, loader, (v) -> true);
+	}
+
+	/**
+	 * Retrieves the value for the given SQL statement or computes it. Computed values are
+	 * only added to the cache if they are admitted by the given predicate.
+	 * @param sql the SQL statement
+	 * @param loader the function computing the value on a cache miss
+	 * @param admit a predicate deciding whether a computed value is added to the cache
+	 * @return the cached or computed value
+	 */
+	V get(String sql, Function<String, V> loader, Predicate<? super V> admit) {
+
+		var key = normalize(sql);
+		int hash = spread(key.hashCode());
+		var segment = this.segments[hash & (this.segments.length - 1)];
+
+		var value = segment.get(key, hash);
+		if (value != null) {
+			this.hits.increment();
+			return value;
+		}
+
+		this.misses.increment();
+		value = loader.apply(sql);
+		if (value != null && admit.test(value)) {
+			this.evictions.add(segment.put(key, value));
+		}
+		return value;
+	}
+
+	CacheStatistics getStatistics() {
+
+		long size = 0;
+		for (var segment : this.segments) {
+			size += segment.size();
+		}
+		return new CacheStatistics(this.hits.sum(), this.misses.sum(), this.evictions.sum(), size);
+	}
+
+	/**
+	 * Normalizes a SQL statement so that statements only differing in insignificant
+	 * whitespace map to the same key. String literals, quoted identifiers and comments
+	 * are kept verbatim. Statements with a backslash inside a quoted section are not
+	 * normalized at all: depending on the dialect the backslash might escape a quote, so
+	 * the end of the section is unknown. The same applies to statements containing
+	 * {@code $} or {@code [} outside quoted sections, which might start dollar quoted
+	 * strings or bracketed identifiers.
+	 * @param sql the statement to normalize
+	 * @return a normalized version of the statement
+	 */
+	static String normalize(String sql) {
+
+		var result = new StringBuilder(sql.length());
+		boolean pendingWhitespace = false;
+		int i = 0;
+		int length = sql.length();
+		while (i < length) {
+			char c = sql.charAt(i);
+			if (Character.isWhitespace(c)) {
+				pendingWhitespace = true;
+				++i;
+				continue;
+			}
+
+			if (pendingWhitespace && result.length() > 0 && result.charAt(result.length() - 1) != '\n') {
+				result.append(' ');
+			}
+			pendingWhitespace = false;
+
+			int end;
+			if (c == '\'' || c == '"' || c == '`') {
+				end = sql.indexOf(c, i + 1);
+				// Escaped quotes by doubling are just two consecutive quoted sections
+				end = (end < 0) ? length : end + 1;
+				for (int j = i + 1; j < end; ++j) {
+					if (sql.charAt(j) == '\\') {
+						return sql;
+					}
+				}
+			}
+			else if (c == '$' || c == '[') {
+				// Dollar quoted strings and bracketed identifiers are not recognized
+				return sql;
+			}
+			else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+				end = sql.indexOf('\n', i);
+				end = (end < 0) ? length : end + 1;
+			}
+			else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+				end = sql.indexOf("*/", i + 2);
+				end = (end < 0) ? length : end + 2;
+			}
+			else {
+				end = i + 1;
+			}
+			result.append(sql, i, end);
+			i = end;
+		}
+		return result.toString();
+	}
+
+	private static int spread(int h) {
+		h ^= h >>> 16;
+		h *= 0x45d9f3b;
+		return h ^ (h >>> 16);
+	}
+
+	private static final class Segment<V> {
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private final LinkedHashMap<String, V> window;
+
+		private final int windowCapacity;
+
+		private final LinkedHashMap<String, V> main;
+
+		private final int mainCapacity;
+
+		private final FrequencySketch sketch;
+
+		Segment(int capacity, TranslatorConfig.CacheEvictionPolicy evictionPolicy) {
+
+			if (evictionPolicy == TranslatorConfig.CacheEvictionPolicy.W_TINY_LFU && capacity > 1) {
+				this.windowCapacity = Math.max(1, capacity / 100);
+				this.sketch = new FrequencySketch(capacity);
+			}
+			else {
+				this.windowCapacity = 0;
+				this.sketch = null;
+			}
+			this.mainCapacity = capacity - this.windowCapacity;
+			this.window = new LinkedHashMap<>(16, 0.75f, true);
+			this.main = new LinkedHashMap<>(16, 0.75f, true);
+		}
+
+		V get(String key, int hash) {
+
+			this.lock.lock();
+			try {
+				if (this.sketch != null) {
+					this.sketch.increment(hash);
+				}
+				var value = this.window.get(key);
+				return (value != null) ? value : this.main.get(key);
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		/**
+		 * Adds a new value to this segment.
+		 * @param key the normalized key
+		 * @param value the value to add
+		 * @return the number of entries evicted
+		 */
+		int put(String key, V value) {
+
+			this.lock.lock();
+			try {
+				if (this.main.containsKey(key)) {
+					this.main.put(key, value);
+					return 0;
+				}
+				if (this.sketch == null) {
+					this.main.put(key, value);
+					return (removeEldestIfNecessary(this.main, this.mainCapacity) != null) ? 1 : 0;
+				}
+
+				this.window.put(key, value);
+				var candidate = removeEldestIfNecessary(this.window, this.windowCapacity);
+				if (candidate == null) {
+					return 0;
+				}
+				if (this.main.size() < this.mainCapacity) {
+					this.main.put(candidate.getKey(), candidate.getValue());
+					return 0;
+				}
+
+				var victim = this.main.keySet().iterator().next();
+				if (this.sketch.frequency(spread(candidate.getKey().hashCode())) > this.sketch
+						.frequency(spread(victim.hashCode()))) {
+					this.main.remove(victim);
+					this.main.put(candidate.getKey(), candidate.getValue());
+				}
+				return 1;
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		int size() {
+
+			this.lock.lock();
+			try {
+				return this.window.size() + this.main.size();
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		private static <V> Map.Entry<String, V> removeEldestIfNecessary(LinkedHashMap<String, V> map, int capacity) {
+
+			if (map.size() <= capacity) {
+				return null;
+			}
+			Iterator<Map.Entry<String, V>> it = map.entrySet().iterator();
+			var eldest = it.next();
+			var result = Map.entry(eldest.getKey(), eldest.getValue());
+			it.remove();
+			return result;
+		}
+
+	}
+
+	/**
+	 * A count-min sketch with 4 rows of saturating 8-bit counters, each row being about
+	 * 16 times as wide as the capacity of the owning segment. All counters are halved
+	 * once the number of recorded events reaches ten times the capacity of the owning
+	 * segment, so that the sketch adapts to changing workloads.
+	 */
+	private static final class FrequencySketch {
+
+		private static final int[] SEEDS = { 0x97cb3127, 0xb2a3c1d5, 0xa4e1f5c3, 0x8de53e1f };
+
+		private final byte[][] table;
+
+		private final int mask;
+
+		private final int sampleSize;
+
+		private int events;
+
+		FrequencySketch(int capacity) {
+
+			int width = Integer.highestOneBit(Math.max(64, capacity * 16 - 1) << 1);
+			this.table = new byte[SEEDS.length][width];
+			this.mask = width - 1;
+			this.sampleSize = 10 * capacity;
+		}
+
+		void increment(int hash) {
+
+			for (int i = 0; i < SEEDS.length; ++i) {
+				int index = index(hash, i);
+				if (this.table[i][index] != Byte.MAX_VALUE) {
+					++this.table[i][index];
+				}
+			}
+			if (++this.events >= this.sampleSize) {
+				reset();
+			}
+		}
+
+		int frequency(int hash) {
+
+			int frequency = Byte.MAX_VALUE;
+			for (int i = 0; i < SEEDS.length; ++i) {
+				frequency = Math.min(frequency, this.table[i][index(hash, i)]);
+			}
+			return frequency;
+		}
+
+		private int index(int hash, int row) {
+			int h = (hash ^ SEEDS[row]) * SEEDS[row];
+			return (h ^ (h >>> 16)) & this.mask;
+		}
+
+		private void reset() {
+
+			for (byte[] row : this.table) {
+				for (int i = 0; i < row.length; ++i) {
+					row[i] = (byte) (row[i] >> 1);
+				}
+			}
+			this.events /= 2;
+		}
+
+	}
+
+}
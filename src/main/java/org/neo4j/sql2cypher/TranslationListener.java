@@ -0,0 +1,55 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+/**
+ * A listener that is notified about each translation done by a {@link Translator},
+ * configured via
+ * {@link TranslatorConfig.Builder#withTranslationListener(TranslationListener)}.
+ * Listeners are called on the thread doing the translation and must therefore be thread
+ * safe and quick. Translations that are served from the translation cache are not
+ * reported, see {@link Translator#getCacheStatistics()} for those. Exceptions thrown by a
+ * listener don't affect the translation, they are ignored or added as suppressed
+ * exceptions to the reason of a failed translation.
+ *
+ * @author Sql2cypher Contributors
+ * @see TranslationMetricsRecorder
+ */
+public interface TranslationListener {
+
+	/**
+	 * A listener that ignores all events. No timings are taken at all if this listener is
+	 * configured, which is the default.
+	 */
+	TranslationListener NOOP = new TranslationListener() {
+	};
+
+	/**
+	 * Called after a statement has been successfully translated.
+	 * @param metrics the metrics of the translation
+	 */
+	default void onTranslation(TranslationMetrics metrics) {
+	}
+
+	/**
+	 * Called after the translation of a statement failed.
+	 * @param metrics the metrics of the translation up to the point of failure
+	 * @param failure the reason why the statement could not be translated
+	 */
+	default void onFailure(TranslationMetrics metrics, RuntimeException failure) {
+	}
+
+}
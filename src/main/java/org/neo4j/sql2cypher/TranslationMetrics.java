@@ -0,0 +1,46 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+/**
+ * Timings and counters of a single translation, reported to a
+ * {@link TranslationListener}. Phases that have not been reached, either due to a failure
+ * or because their result has been taken from a cache, are reported as {@literal 0}.
+ * @param statementType the type of the SQL statement, {@literal null} if the statement
+ * could not be parsed
+ * @param parseNanos the time spent parsing the SQL statement, including the computation
+ * of its shape if literals are extracted
+ * @param buildNanos the time spent building the Cypher statement from the jOOQ model,
+ * including the lookup of labels and types
+ * @param renderNanos the time spent rendering the Cypher statement
+ * @param nodeCount the number of jOOQ query parts (statements, tables, expressions and
+ * conditions) visited while building the Cypher statement
+ * @param cached {@literal true} if the Cypher statement has been taken from the cache of
+ * statement shapes
+ * @author Sql2cypher Contributors
+ */
+public record TranslationMetrics(StatementType statementType, long parseNanos, long buildNanos, long renderNanos,
+		int nodeCount, boolean cached) {
+
+	/**
+	 * Computes the total time of the translation.
+	 * @return the sum of all phases in nanoseconds
+	 */
+	public long totalNanos() {
+		return this.parseNanos + this.buildNanos + this.renderNanos;
+	}
+
+}
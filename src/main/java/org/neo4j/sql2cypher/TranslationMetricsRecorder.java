@@ -0,0 +1,272 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link TranslationListener} recording the metrics of all translations into
+ * histograms, which are safe to be written concurrently and wait-free. The histograms are
+ * meant to be scraped periodically via {@link #getIntervalHistogram(Metric)}, each call
+ * returns the values recorded since the previous call for the same metric. Only one
+ * thread should scrape the histograms at a time.
+ * <p>
+ * Values are counted in log-linear buckets like in an
+ * <a href="https://hdrhistogram.github.io/HdrHistogram/">HdrHistogram</a>: each power of
+ * two is divided into 16 buckets of equal width, so that all values reported by a
+ * histogram are within about 6% of the recorded values. The histograms only need the JDK.
+ *
+ * @author Sql2cypher Contributors
+ */
+public final class TranslationMetricsRecorder implements TranslationListener {
+
+	private static final int SUB_BUCKET_BITS = 4;
+
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+	private final Map<Metric, Recorder> recorders = new EnumMap<>(Metric.class);
+
+	private final Map<StatementType, LongAdder> translations = new EnumMap<>(StatementType.class);
+
+	private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new recorder with empty histograms.
+	 */
+	public TranslationMetricsRecorder() {
+		for (Metric metric : Metric.values()) {
+			this.recorders.put(metric, new Recorder());
+		}
+		for (StatementType statementType : StatementType.values()) {
+			this.translations.put(statementType, new LongAdder());
+		}
+	}
+
+	@Override
+	public void onTranslation(TranslationMetrics metrics) {
+
+		this.recorders.get(Metric.PARSE_NANOS).recordValue(metrics.parseNanos());
+		if (!metrics.cached()) {
+			this.recorders.get(Metric.BUILD_NANOS).recordValue(metrics.buildNanos());
+			this.recorders.get(Metric.RENDER_NANOS).recordValue(metrics.renderNanos());
+			this.recorders.get(Metric.NODE_COUNT).recordValue(metrics.nodeCount());
+		}
+		this.recorders.get(Metric.TOTAL_NANOS).recordValue(metrics.totalNanos());
+		this.translations.get(metrics.statementType()).increment();
+	}
+
+	@Override
+	public void onFailure(TranslationMetrics metrics, RuntimeException failure) {
+		this.failures.computeIfAbsent(failure.getClass().getName(), (k) -> new LongAdder()).increment();
+	}
+
+	/**
+	 * Retrieves the values recorded for the given metric since the last call to this
+	 * method for the same metric.
+	 * @param metric the metric to retrieve
+	 * @return a histogram of the values recorded in the last interval
+	 */
+	public Histogram getIntervalHistogram(Metric metric) {
+		return this.recorders.get(metric).getIntervalHistogram();
+	}
+
+	/**
+	 * Computes the bucket a value is counted in. Values below {@link #SUB_BUCKET_COUNT}
+	 * have a bucket of their own, larger values share a bucket with all values having the
+	 * same highest {@link #SUB_BUCKET_BITS} + 1 bits.
+	 * @param value the value to count, negative values are counted as 0
+	 * @return the index of the bucket
+	 */
+	static int bucketIndex(long value) {
+
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) Math.max(value, 0);
+		}
+		int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	/**
+	 * Computes the highest value counted in a bucket.
+	 * @param index the index of the bucket
+	 * @return the highest value of the bucket
+	 */
+	static long highestValue(int index) {
+
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long lowest = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	/**
+	 * Provides the number of successful translations per statement type since this
+	 * recorder has been created.
+	 * @return an immutable snapshot of the translation counts
+	 */
+	public Map<StatementType, Long> getTranslationCounts() {
+
+		var result = new EnumMap<StatementType, Long>(StatementType.class);
+		this.translations.forEach((k, v) -> result.put(k, v.sum()));
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Provides the number of failed translations by the name of the exception class that
+	 * caused the failure since this recorder has been created.
+	 * @return an immutable snapshot of the failure counts
+	 */
+	public Map<String, Long> getFailureCounts() {
+
+		var result = new TreeMap<String, Long>();
+		this.failures.forEach((k, v) -> result.put(k, v.sum()));
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Counts the values of a single metric. The counts are never reset, the values of an
+	 * interval are the difference to the counts seen at the end of the previous interval.
+	 */
+	private static final class Recorder {
+
+		private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+		private final long[] previousCounts = new long[BUCKET_COUNT];
+
+		void recordValue(long value) {
+			this.counts.incrementAndGet(bucketIndex(value));
+		}
+
+		Histogram getIntervalHistogram() {
+
+			var intervalCounts = new long[BUCKET_COUNT];
+			for (int i = 0; i < BUCKET_COUNT; ++i) {
+				long count = this.counts.get(i);
+				intervalCounts[i] = count - this.previousCounts[i];
+				this.previousCounts[i] = count;
+			}
+			return new Histogram(intervalCounts);
+		}
+
+	}
+
+	/**
+	 * The values of a metric recorded in an interval. Values are reported as the highest
+	 * value of the bucket they have been counted in.
+	 */
+	public static final class Histogram {
+
+		private final long[] counts;
+
+		private final long totalCount;
+
+		Histogram(long[] counts) {
+			this.counts = counts;
+			this.totalCount = Arrays.stream(counts).sum();
+		}
+
+		/**
+		 * Provides the number of values recorded in the interval.
+		 * @return the number of values
+		 */
+		public long getTotalCount() {
+			return this.totalCount;
+		}
+
+		/**
+		 * Provides the largest value recorded in the interval.
+		 * @return the largest value, 0 if no values have been recorded
+		 */
+		public long getMaxValue() {
+
+			for (int i = this.counts.length - 1; i >= 0; --i) {
+				if (this.counts[i] != 0) {
+					return highestValue(i);
+				}
+			}
+			return 0;
+		}
+
+		/**
+		 * Provides the value at the given percentile of all values recorded in the
+		 * interval.
+		 * @param percentile the percentile between 0 and 100
+		 * @return the value at the percentile, 0 if no values have been recorded
+		 */
+		public long getValueAtPercentile(double percentile) {
+
+			if (this.totalCount == 0) {
+				return 0;
+			}
+			long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * this.totalCount));
+			long seen = 0;
+			for (int i = 0; i < this.counts.length; ++i) {
+				seen += this.counts[i];
+				if (seen >= rank) {
+					return highestValue(i);
+				}
+			}
+			return getMaxValue();
+		}
+
+	}
+
+	/**
+	 * The metrics recorded as histograms.
+	 */
+	public enum Metric {
+
+		/**
+		 * Time spent parsing SQL.
+		 */
+		PARSE_NANOS,
+
+		/**
+		 * Time spent building Cypher statements, not recorded for cached statements.
+		 */
+		BUILD_NANOS,
+
+		/**
+		 * Time spent rendering Cypher statements, not recorded for cached statements.
+		 */
+		RENDER_NANOS,
+
+		/**
+		 * Total time of the translations.
+		 */
+		TOTAL_NANOS,
+
+		/**
+		 * Number of jOOQ query parts visited per translation, not recorded for cached
+		 * statements.
+		 */
+		NODE_COUNT
+
+	}
+
+}
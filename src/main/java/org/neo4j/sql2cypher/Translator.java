@@ -15,21 +15,35 @@
  */
 package org.neo4j.sql2cypher;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.jooq.AggregateFunction;
 import org.jooq.Asterisk;
 import org.jooq.CreateTableElementListStep;
 import org.jooq.DSLContext;
 import org.jooq.Field;
+import org.jooq.Name;
 import org.jooq.Param;
 import org.jooq.Parser;
 import org.jooq.QualifiedAsterisk;
@@ -42,7 +56,11 @@ import org.jooq.SelectFieldOrAsterisk;
 import org.jooq.SortField;
 import org.jooq.Table;
 import org.jooq.TableField;
+import org.jooq.VisitContext;
+import org.jooq.VisitListener;
+import org.jooq.conf.ParseUnknownFunctions;
 import org.jooq.conf.ParseWithMetaLookups;
+import org.jooq.conf.SettingsTools;
 import org.jooq.impl.DSL;
 import org.jooq.impl.DefaultConfiguration;
 import org.jooq.impl.QOM;
@@ -53,6 +71,7 @@ import org.neo4j.cypherdsl.core.Cypher;
 import org.neo4j.cypherdsl.core.ExposesRelationships;
 import org.neo4j.cypherdsl.core.Expression;
 import org.neo4j.cypherdsl.core.Functions;
+import org.neo4j.cypherdsl.core.IdentifiableElement;
 import org.neo4j.cypherdsl.core.Node;
 import org.neo4j.cypherdsl.core.PatternElement;
 import org.neo4j.cypherdsl.core.Relationship;
@@ -68,6 +87,13 @@ import org.neo4j.cypherdsl.core.renderer.Renderer;
 
 /**
  * Quick proof of concept of a jOOQ/Cypher-DSL based SQL to Cypher translator.
+ * <p>
+ * Instances are thread-safe: the configuration and the renderer are created once and only
+ * read afterwards. The parser and the meta model derived from the table and join column
+ * mappings can be replaced via {@link #reload(MappingCatalog)}; they are swapped in
+ * atomically, and each translation works with the mappings it started with. All state
+ * collected while walking a single statement lives in a per-translation context, so one
+ * translator can be shared freely without any locking.
  *
  * @author Lukas Eder
  * @author Michael J. Simons
@@ -75,6 +101,14 @@ import org.neo4j.cypherdsl.core.renderer.Renderer;
  */
 public final class Translator {
 
+	private static final Field<?> COUNT_ASTERISK = ((QOM.Count) DSL.count()).$field();
+
+	private static final DispatchTable<Field<?>, TranslationContext, Expression> EXPRESSIONS = createExpressionTable(
+			new HandlerRegistry());
+
+	private static final DispatchTable<org.jooq.Condition, TranslationContext, Condition> CONDITIONS = createConditionTable(
+			new HandlerRegistry());
+
 	public static Translator defaultTranslator() {
 		return new Translator(TranslatorConfig.defaultConfig());
 	}
@@ -85,344 +119,1373 @@ public final class Translator {
 
 	private final TranslatorConfig config;
 
+	private final Renderer renderer;
+
+	/**
+	 * The listener to notify, {@literal null} if none has been configured, so that no
+	 * timings need to be taken at all.
+	 */
+	private final TranslationListener listener;
+
+	private final DispatchTable<Field<?>, TranslationContext, Expression> expressions;
+
+	private final DispatchTable<org.jooq.Condition, TranslationContext, Condition> conditions;
+
+	private final Map<String, TranslatorExtension.FunctionHandler> functions;
+
+	/**
+	 * Everything derived from the current mapping catalog. Each translation reads this
+	 * once, so that a reload never affects translations in flight.
+	 */
+	private volatile Mappings mappings;
+
 	private Translator(TranslatorConfig config) {
 
 		this.config = config;
-	}
+		this.listener = (config.getTranslationListener() != TranslationListener.NOOP) ? config.getTranslationListener()
+				: null;
 
-	// Unsure how thread safe this should be (wrt the node lookup table), but this here
-	// will do for the purpose of adding some tests
-	public String convert(String sql) {
-		Query query = parse(sql);
-
-		if (query instanceof Select<?> s) {
-			return render(statement(s));
-		}
-		else if (query instanceof QOM.Delete<?> d) {
-			return render(statement(d));
-		}
-		else if (query instanceof QOM.Truncate<?> t) {
-			return render(statement(t));
-		}
-		else if (query instanceof QOM.Insert<?> t) {
-			return render(statement(t));
+		var extensions = new ArrayList<>(Extensions.DISCOVERED);
+		extensions.addAll(config.getExtensions());
+		var handlers = HandlerRegistry.of(extensions);
+		if (handlers.isEmpty()) {
+			this.expressions = EXPRESSIONS;
+			this.conditions = CONDITIONS;
 		}
 		else {
-			throw unsupported(query);
-		}
+			this.expressions = createExpressionTable(handlers);
+			this.conditions = createConditionTable(handlers);
+		}
+		this.functions = handlers.getFunctionHandlers();
+		this.renderer = Renderer
+				.getRenderer(config.isPrettyPrint() ? Configuration.prettyPrinting() : Configuration.defaultConfig());
+		this.mappings = createMappings(
+				MappingCatalog.of(config.getTableToLabelMappings(), config.getJoinColumnsToTypeMappings()));
 	}
 
-	@SuppressWarnings("ResultOfMethodCallIgnored")
-	private DSLContext createDSLContext() {
+	/**
+	 * Replaces the table and join column mappings of this translator. The parser, its
+	 * meta model and the caches are derived from the new catalog before they are swapped
+	 * in atomically. Translations already in flight finish with the previous mappings,
+	 * all cached translations are discarded.
+	 * @param catalog the new mappings
+	 */
+	public void reload(MappingCatalog catalog) {
+		this.mappings = createMappings(Objects.requireNonNull(catalog));
+	}
 
-		var settings = new DefaultConfiguration().settings().withParseNameCase(this.config.getParseNameCase())
-				.withRenderNameCase(this.config.getRenderNameCase())
-				.withParseWithMetaLookups(ParseWithMetaLookups.IGNORE_ON_FAILURE).withDiagnosticsLogging(true)
-				.withParseDialect(this.config.getSqlDialect());
+	private Mappings createMappings(MappingCatalog catalog) {
 
-		Optional.ofNullable(this.config.getParseNamedParamPrefix()).filter(Predicate.not(String::isBlank))
-				.map(String::trim).ifPresent(settings::withParseNamedParamPrefix);
+		var context = createDSLContext(this.config, catalog, !this.functions.isEmpty());
+		var caching = this.config.getCacheSize() > 0;
+		if (this.config.isExtractLiterals()) {
+			return new Mappings(catalog, context.parser(), null, createShapeContext(context), caching
+					? new TranslationCache<>(this.config.getCacheSize(), this.config.getCacheEvictionPolicy()) : null);
+		}
+		return new Mappings(catalog, context.parser(), caching
+				? new TranslationCache<>(this.config.getCacheSize(), this.config.getCacheEvictionPolicy()) : null, null,
+				null);
+	}
 
-		var context = DSL.using(this.config.getSqlDialect(), settings);
-		context.configuration().set(() -> {
-			var tables = new HashMap<String, Query>();
+	/**
+	 * Translates a single SQL statement into Cypher. This method is safe to be called
+	 * concurrently from multiple threads.
+	 * @param sql the SQL statement to translate
+	 * @return the Cypher equivalent of the given SQL statement
+	 * @throws IllegalArgumentException if the statement contains unsupported constructs
+	 */
+	public String convert(String sql) {
+		return translate(sql).cypher();
+	}
 
-			this.config.getJoinColumnsToTypeMappings().forEach((k, v) -> {
-				var tableAndColumnName = k.split("\\.");
-				var createTableStep = (CreateTableElementListStep) tables.computeIfAbsent(tableAndColumnName[0],
-						DSL::createTable);
-				createTableStep.column(DSL.field(tableAndColumnName[1]).comment("type=" + v));
-			});
+	/**
+	 * Translates a single SQL statement into Cypher and provides the parameters of the
+	 * resulting statement as well. This method is safe to be called concurrently from
+	 * multiple threads.
+	 * @param sql the SQL statement to translate
+	 * @return the Cypher equivalent of the given SQL statement together with its
+	 * parameters
+	 * @throws IllegalArgumentException if the statement contains unsupported constructs
+	 * @see TranslatorConfig.Builder#withExtractLiterals(boolean)
+	 */
+	public Translation translate(String sql) {
+
+		var currentMappings = this.mappings;
+		if (currentMappings.cache() == null) {
+			return translate0(currentMappings, sql);
+		}
+		return currentMappings.cache().get(sql, (v) -> translate0(currentMappings, v));
+	}
 
-			this.config.getTableToLabelMappings().forEach((k, v) -> {
-				var createTableStep = (CreateTableElementListStep) tables.computeIfAbsent(k, DSL::createTable);
-				createTableStep.comment("label=" + v);
-			});
+	/**
+	 * Translates a script containing any number of SQL statements, separated by
+	 * semicolons. The script is parsed as a whole, there is no need to split it upfront.
+	 * @param script the SQL script to translate
+	 * @return the translations of all statements in the script, in order
+	 */
+	public List<Translation> translateScript(String script) {
 
-			return context.meta(tables.values().toArray(Query[]::new));
-		});
-		return context;
+		var currentMappings = this.mappings;
+		var queries = currentMappings.parser().parse(script).queries();
+		var result = new ArrayList<Translation>(queries.length);
+		for (var query : queries) {
+			result.add(translate0(currentMappings, query));
+		}
+		return result;
 	}
 
-	private Query parse(String sql) {
-		DSLContext dsl = createDSLContext();
-		Parser parser = dsl.parser();
-		return parser.parseQuery(sql);
+	/**
+	 * Translates a script containing any number of SQL statements into a list of Cypher
+	 * statements.
+	 * @param script the SQL script to translate
+	 * @return the Cypher statements, in the order of the SQL statements in the script
+	 * @see #translateScript(String)
+	 */
+	public List<String> convertScript(String script) {
+		return translateScript(script).stream().map(Translation::cypher).toList();
 	}
 
-	private String render(Statement statement) {
-		Renderer renderer = Renderer.getRenderer(
-				this.config.isPrettyPrint() ? Configuration.prettyPrinting() : Configuration.defaultConfig());
-		return renderer.render(statement);
+	/**
+	 * Translates a script containing any number of SQL statements into a single Cypher
+	 * script, in which each statement is terminated by a semicolon.
+	 * @param script the SQL script to translate
+	 * @return the Cypher script
+	 * @see #translateScript(String)
+	 */
+	public String convertToScript(String script) {
+
+		var translations = translateScript(script);
+		var result = new StringBuilder();
+		for (var translation : translations) {
+			if (!result.isEmpty()) {
+				result.append('\n');
+			}
+			result.append(translation.cypher()).append(';');
+		}
+		return result.toString();
 	}
 
-	Statement statement(QOM.Delete<?> d) {
-		Node e = (Node) resolveTableOrJoin(d.$from());
+	/**
+	 * Translates a batch of SQL statements. Failing statements don't abort the batch but
+	 * are reported as failed results. All statements share the parser, the meta model and
+	 * the renderer of this translator.
+	 * @param statements the SQL statements to translate
+	 * @return one result per statement, in the order of the input
+	 */
+	public List<BatchResult> convertAll(Iterable<String> statements) {
+
+		var results = new ArrayList<BatchResult>();
+		long index = 0;
+		for (var sql : statements) {
+			results.add(convert(index++, sql));
+		}
+		return results;
+	}
+
+	/**
+	 * Lazily translates a stream of SQL statements. Failing statements don't abort the
+	 * stream but are reported as failed results. The statements are consumed in encounter
+	 * order and each result carries the position of its input.
+	 * @param statements the SQL statements to translate
+	 * @return a stream with one result per statement, in the order of the input
+	 */
+	public Stream<BatchResult> convertAll(Stream<String> statements) {
+
+		var input = statements.iterator();
+		var output = new Iterator<BatchResult>() {
 
-		OngoingReadingWithoutWhere m1 = Cypher.match(e);
-		OngoingReadingWithWhere m2 = (d.$where() != null) ? m1.where(condition(d.$where()))
-				: (OngoingReadingWithWhere) m1;
-		return m2.delete(e.asExpression()).build();
+			private long index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return input.hasNext();
+			}
+
+			@Override
+			public BatchResult next() {
+				return convert(this.index++, input.next());
+			}
+		};
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(output, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(statements::close);
 	}
 
-	Statement statement(QOM.Truncate<?> t) {
-		Node e = (Node) resolveTableOrJoin(t.$table());
+	/**
+	 * Translates a batch of SQL statements in parallel. Apart from using several threads,
+	 * this behaves exactly like {@link #convertAll(Iterable)}.
+	 * @param statements the SQL statements to translate
+	 * @param parallelism the number of threads to use
+	 * @return one result per statement, in the order of the input
+	 */
+	public List<BatchResult> convertAll(Iterable<String> statements, int parallelism) {
 
-		return Cypher.match(e).detachDelete(e.asExpression()).build();
+		try (var results = convertAll(StreamSupport.stream(statements.spliterator(), false), parallelism)) {
+			return results.toList();
+		}
 	}
 
-	ResultStatement statement(Select<?> x) {
+	/**
+	 * Lazily translates a stream of SQL statements in parallel on a dedicated fork-join
+	 * pool. Results are still handed out in the order of the input, and only a small
+	 * multiple of {@code parallelism} statements are held in memory at any time. The pool
+	 * is shut down when the stream is exhausted or closed; close the stream if it is not
+	 * consumed completely.
+	 * @param statements the SQL statements to translate
+	 * @param parallelism the number of threads to use
+	 * @return a stream with one result per statement, in the order of the input
+	 */
+	public Stream<BatchResult> convertAll(Stream<String> statements, int parallelism) {
+
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("The degree of parallelism must be at least 1");
+		}
+		if (parallelism == 1) {
+			return convertAll(statements);
+		}
+
+		var output = new ParallelTranslations(statements.iterator(), this::convert, parallelism);
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(output, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(output::close).onClose(statements::close);
+	}
 
-		// Done lazy as otherwise the property containers won't be resolved
-		Supplier<List<Expression>> resultColumnsSupplier = () -> x.$select().stream()
-				.map((t) -> (Expression) expression(t)).toList();
+	private BatchResult convert(long index, String sql) {
 
-		if (x.$from().isEmpty()) {
-			return Cypher.returning(resultColumnsSupplier.get()).build();
+		try {
+			return new BatchResult(index, sql, translate(sql), null);
 		}
+		catch (RuntimeException ex) {
+			return new BatchResult(index, sql, null, ex);
+		}
+	}
 
-		OngoingReadingWithoutWhere m1 = Cypher.match(x.$from().stream().map(this::resolveTableOrJoin).toList());
-
-		OngoingReadingWithWhere m2 = (x.$where() != null) ? m1.where(condition(x.$where()))
-				: (OngoingReadingWithWhere) m1;
+	/**
+	 * Provides the counters of the translation cache. The cache is keyed by the SQL
+	 * statement only, as each translator is bound to exactly one configuration. If
+	 * literals are extracted into parameters, the counters refer to the cache of
+	 * statement shapes.
+	 * @return a snapshot of the cache counters, all {@literal 0} if no cache has been
+	 * configured. The counters start over whenever the mappings are
+	 * {@link #reload(MappingCatalog) reloaded}.
+	 * @see TranslatorConfig.Builder#withCacheSize(int)
+	 */
+	public CacheStatistics getCacheStatistics() {
+
+		var currentMappings = this.mappings;
+		if (currentMappings.cache() != null) {
+			return currentMappings.cache().getStatistics();
+		}
+		return (currentMappings.templates() != null) ? currentMappings.templates().getStatistics()
+				: CacheStatistics.EMPTY;
+	}
 
-		var returning = m2.returning(resultColumnsSupplier.get())
-				.orderBy(x.$orderBy().stream().map(this::expression).toList());
+	private Translation translate0(Mappings currentMappings, String sql) {
 
-		StatementBuilder.BuildableStatement<ResultStatement> buildableStatement;
-		if (!(x.$limit() instanceof Param<?> param)) {
-			buildableStatement = returning;
+		if (this.listener == null) {
+			return translate0(currentMappings, currentMappings.parser().parseQuery(sql), null);
 		}
-		else {
-			buildableStatement = returning.limit(expression(param));
+
+		var measurement = new Measurement();
+		return observe(measurement, () -> {
+			var query = currentMappings.parser().parseQuery(sql);
+			measurement.parsed(query);
+			return translate0(currentMappings, query, measurement);
+		});
+	}
+
+	private Translation translate0(Mappings currentMappings, Query query) {
+
+		if (this.listener == null) {
+			return translate0(currentMappings, query, null);
 		}
 
-		return buildableStatement.build();
+		var measurement = new Measurement();
+		measurement.statementType = StatementType.of(query);
+		return observe(measurement, () -> translate0(currentMappings, query, measurement));
 	}
 
-	Statement statement(QOM.Insert<?> insert) {
-		var table = insert.$into();
-		// TODO handle if this resolves to something unexpectedly different
-		var node = (Node) this.resolveTableOrJoin(table);
+	/**
+	 * Runs a translation and reports it to the listener. A failing listener never fails a
+	 * translation: its exceptions are ignored after a successful translation and added as
+	 * suppressed exceptions to the reason of a failed one.
+	 * @param measurement the measurement of the translation
+	 * @param translation the translation to run
+	 * @return the result of the translation
+	 */
+	private Translation observe(Measurement measurement, Supplier<Translation> translation) {
+
+		Translation result;
+		try {
+			result = translation.get();
+		}
+		catch (RuntimeException ex) {
+			try {
+				this.listener.onFailure(measurement.toMetrics(), ex);
+			}
+			catch (RuntimeException listenerFailure) {
+				ex.addSuppressed(listenerFailure);
+			}
+			throw ex;
+		}
 
-		var rows = insert.$values();
-		var columns = insert.$columns();
+		try {
+			this.listener.onTranslation(measurement.toMetrics());
+		}
+		catch (RuntimeException ignored) {
+			// Metrics are not worth failing a successful translation for
+		}
+		return result;
+	}
 
-		if (rows.size() == 1) {
-			Object[] keysAndValues = new Object[columns.size() * 2];
-			var row = rows.get(0);
-			for (int i = 0; i < columns.size(); ++i) {
-				keysAndValues[i * 2] = columns.get(i).getName();
-				keysAndValues[i * 2 + 1] = expression(row.field(i));
+	/**
+	 * Translates a parsed query.
+	 * @param currentMappings the mappings the query has been parsed with
+	 * @param query the query to translate
+	 * @param measurement the measurement of the current translation, {@literal null} if
+	 * no listener is configured
+	 * @return the translation
+	 */
+	private Translation translate0(Mappings currentMappings, Query query, Measurement measurement) {
+
+		if (currentMappings.shapeContext() == null) {
+			var context = new TranslationContext(currentMappings.catalog(), null);
+			var statement = context.statement(query);
+			if (measurement != null) {
+				measurement.built(context.nodeCount);
 			}
-			return Cypher.create(node.withProperties(keysAndValues)).build();
+			var cypher = render(statement);
+			if (measurement != null) {
+				measurement.renderNanos = measurement.lap();
+			}
+			return translation(query, context, cypher);
 		}
-		else {
-			var props = insert.$values().stream().map(row -> {
-				var result = new HashMap<String, Object>(columns.size());
-				for (int i = 0; i < columns.size(); ++i) {
-					result.put(columns.get(i).getName(), expression(row.field(i)));
-				}
-				return Cypher.literalOf(result);
-			}).toList();
-			return Cypher.unwind(Cypher.listOf(props)).as("properties").create(node)
-					.set(node, Cypher.name("properties")).build();
+
+		// The shape of a statement is its SQL with all literals replaced by markers
+		var literals = new ArrayList<QueryPart>();
+		var shape = DSL.using(currentMappings.shapeContext().configuration().derive(new LiteralCollector(literals)))
+				.render(query);
+		if (measurement != null) {
+			measurement.parseNanos += measurement.lap();
+			measurement.cached = true;
+		}
+
+		Function<String, Template> templateSupplier = (ignored) -> template(currentMappings.catalog(), query, literals,
+				measurement);
+		var templates = currentMappings.templates();
+		var template = (templates != null) ? templates.get(shape, templateSupplier, Template::cacheable)
+				: templateSupplier.apply(shape);
+		var translation = template.bind(literals);
+		if (translation == null) {
+			// The cached template has been created for a different kind of LIKE pattern
+			translation = template(currentMappings.catalog(), query, literals, measurement).bind(literals);
 		}
+		return translation;
 	}
 
-	private Expression expression(SelectFieldOrAsterisk t) {
-		if (t instanceof SelectField<?> s) {
-			return expression(s);
+	private Template template(MappingCatalog catalog, Query query, List<QueryPart> literals, Measurement measurement) {
+
+		var literalIndexes = new IdentityHashMap<QueryPart, Integer>(literals.size());
+		boolean cacheable = true;
+		for (int i = 0; i < literals.size(); ++i) {
+			cacheable &= literalIndexes.putIfAbsent(literals.get(i), i) == null;
 		}
-		else if (t instanceof Asterisk) {
-			return Cypher.asterisk();
+
+		var context = new TranslationContext(catalog, literalIndexes);
+		var statement = context.statement(query);
+		if (measurement != null) {
+			measurement.cached = false;
+			measurement.built(context.nodeCount);
 		}
-		else if (t instanceof QualifiedAsterisk q && resolveTableOrJoin(q.$table()) instanceof Node node) {
-			return node.getSymbolicName().orElseGet(() -> Cypher.name(q.$table().getName()));
+		var cypher = render(statement);
+		if (measurement != null) {
+			measurement.renderNanos = measurement.lap();
 		}
-		else {
-			throw unsupported(t);
+		context.bindings.sort(Comparator.comparingInt(Binding::index));
+		return new Template(translation(query, context, cypher), List.copyOf(context.bindings),
+				cacheable && context.allLiteralsExtracted);
+	}
+
+	/**
+	 * Creates the result of a translation. Labels and relationship types have been
+	 * collected while translating, so the rendered Cypher never needs to be parsed again.
+	 * @param query the translated query
+	 * @param context the context the query has been translated with
+	 * @param cypher the rendered statement
+	 * @return the translation
+	 */
+	private static Translation translation(Query query, TranslationContext context, String cypher) {
+		return new Translation(cypher, context.parameters, StatementType.of(query), context.labels,
+				context.relationshipTypes);
+	}
+
+	/**
+	 * Creates the jOOQ context used for parsing. The context, its settings and the meta
+	 * model derived from the table and join column mappings are computed once per
+	 * configuration and are shared by all conversions of a translator. The meta model is
+	 * an in-memory snapshot and won't change afterwards.
+	 * @param config the configuration to derive the context from
+	 * @param catalog the mappings to derive the meta model from
+	 * @param parseUnknownFunctions whether functions unknown to jOOQ should be parsed, so
+	 * that they can be handled by extensions
+	 * @return a ready to use jOOQ context
+	 */
+	@SuppressWarnings("ResultOfMethodCallIgnored")
+	private static DSLContext createDSLContext(TranslatorConfig config, MappingCatalog catalog,
+			boolean parseUnknownFunctions) {
+
+		var settings = new DefaultConfiguration().settings().withParseNameCase(config.getParseNameCase())
+				.withRenderNameCase(config.getRenderNameCase())
+				.withParseWithMetaLookups(ParseWithMetaLookups.IGNORE_ON_FAILURE)
+				.withDiagnosticsLogging(config.isJooqDiagnosticLogging()).withParseDialect(config.getSqlDialect());
+		if (parseUnknownFunctions) {
+			settings.withParseUnknownFunctions(ParseUnknownFunctions.IGNORE);
 		}
+
+		Optional.ofNullable(config.getParseNamedParamPrefix()).filter(Predicate.not(String::isBlank)).map(String::trim)
+				.ifPresent(settings::withParseNamedParamPrefix);
+
+		var context = DSL.using(config.getSqlDialect(), settings);
+		var tables = new HashMap<String, Query>();
+
+		catalog.getJoinColumnsToTypeMappings().forEach((k, v) -> {
+			var tableAndColumnName = k.split("\\.");
+			var createTableStep = (CreateTableElementListStep) tables.computeIfAbsent(tableAndColumnName[0],
+					DSL::createTable);
+			createTableStep.column(DSL.field(tableAndColumnName[1]));
+		});
+		catalog.getTableToLabelMappings().keySet().forEach((k) -> tables.computeIfAbsent(k, DSL::createTable));
+
+		var meta = context.meta(tables.values().toArray(Query[]::new)).snapshot();
+		context.configuration().set(() -> meta);
+		return context;
 	}
 
-	private Expression expression(SelectField<?> s) {
-		if (s instanceof QOM.FieldAlias<?> fa) {
-			return expression(fa.$aliased()).as(fa.$alias().last());
+	/**
+	 * Creates a context for rendering the shape of a statement. Each rendering derives
+	 * its own configuration with a {@link LiteralCollector} from it.
+	 * @param context the context used for parsing
+	 * @return a context for rendering statement shapes
+	 */
+	private static DSLContext createShapeContext(DSLContext context) {
+
+		var settings = SettingsTools.clone(context.settings()).withRenderFormatted(false);
+		return DSL.using(context.configuration().derive(settings));
+	}
+
+	/**
+	 * Creates the table of handlers for all supported expressions. Handlers are resolved
+	 * in registration order, so more specific types must be registered first. Handlers of
+	 * extensions are registered before the built-in ones.
+	 * @param handlers the handlers contributed by extensions
+	 * @return the dispatch table for expressions
+	 */
+	private static DispatchTable<Field<?>, TranslationContext, Expression> createExpressionTable(
+			HandlerRegistry handlers) {
+
+		var builder = DispatchTable.<Field<?>, TranslationContext, Expression>builder();
+		handlers.contributeExpressions(builder);
+		return builder.on(Param.class, TranslationContext::parameter).on(TableField.class, TranslationContext::property)
+				.on(QOM.Add.class,
+						(TranslationContext c, QOM.Add<?> e) -> c.expression(e.$arg1()).add(c.expression(e.$arg2())))
+				.on(QOM.Sub.class,
+						(TranslationContext c, QOM.Sub<?> e) -> c.expression(e.$arg1())
+								.subtract(c.expression(e.$arg2())))
+				.on(QOM.Mul.class,
+						(TranslationContext c, QOM.Mul<?> e) -> c.expression(e.$arg1())
+								.multiply(c.expression(e.$arg2())))
+				.on(QOM.Square.class,
+						(TranslationContext c, QOM.Square<?> e) -> c.expression(e.$arg1())
+								.multiply(c.expression(e.$arg1())))
+				.on(QOM.Div.class,
+						(TranslationContext c, QOM.Div<?> e) -> c.expression(e.$arg1()).divide(c.expression(e.$arg2())))
+
+				// https://neo4j.com/docs/cypher-manual/current/functions/mathematical-numeric/
+				.on(QOM.Abs.class, (TranslationContext c, QOM.Abs<?> e) -> Functions.abs(c.expression(e.$arg1())))
+				.on(QOM.Ceil.class, (TranslationContext c, QOM.Ceil<?> e) -> Functions.ceil(c.expression(e.$arg1())))
+				.on(QOM.Floor.class, (TranslationContext c, QOM.Floor<?> e) -> Functions.floor(c.expression(e.$arg1())))
+				.on(QOM.Round.class, TranslationContext::round)
+				.on(QOM.Sign.class, (c, e) -> Functions.sign(c.expression(e.$arg1())))
+				.on(QOM.Rand.class, (c, e) -> Functions.rand())
+
+				// https://neo4j.com/docs/cypher-manual/current/functions/mathematical-logarithmic/
+				.on(QOM.Euler.class, (c, e) -> Functions.e())
+				.on(QOM.Exp.class, (c, e) -> Functions.exp(c.expression(e.$arg1())))
+				.on(QOM.Ln.class, (c, e) -> Functions.log(c.expression(e.$arg1())))
+				.on(QOM.Log.class,
+						(c, e) -> Functions.log(c.expression(e.$arg1())).divide(Functions.log(c.expression(e.$arg2()))))
+				.on(QOM.Log10.class, (c, e) -> Functions.log10(c.expression(e.$arg1())))
+				.on(QOM.Sqrt.class, (c, e) -> Functions.sqrt(c.expression(e.$arg1())))
+				// TODO: Hyperbolic functions
+
+				// https://neo4j.com/docs/cypher-manual/current/functions/mathematical-trigonometric/
+				.on(QOM.Acos.class, (c, e) -> Functions.acos(c.expression(e.$arg1())))
+				.on(QOM.Asin.class, (c, e) -> Functions.asin(c.expression(e.$arg1())))
+				.on(QOM.Atan.class, (c, e) -> Functions.atan(c.expression(e.$arg1())))
+				.on(QOM.Atan2.class, (c, e) -> Functions.atan2(c.expression(e.$arg1()), c.expression(e.$arg2())))
+				.on(QOM.Cos.class, (c, e) -> Functions.cos(c.expression(e.$arg1())))
+				.on(QOM.Cot.class, (c, e) -> Functions.cot(c.expression(e.$arg1())))
+				.on(QOM.Degrees.class, (c, e) -> Functions.degrees(c.expression(e.$arg1())))
+				.on(QOM.Pi.class, (c, e) -> Functions.pi())
+				.on(QOM.Radians.class, (c, e) -> Functions.radians(c.expression(e.$arg1())))
+				.on(QOM.Sin.class, (c, e) -> Functions.sin(c.expression(e.$arg1())))
+				.on(QOM.Tan.class, (c, e) -> Functions.tan(c.expression(e.$arg1())))
+
+				// https://neo4j.com/docs/cypher-manual/current/functions/string/
+				.on(QOM.CharLength.class, (c, e) -> Functions.size(c.expression(e.$arg1())))
+				.on(QOM.Left.class, (c, e) -> Functions.left(c.expression(e.$arg1()), c.expression(e.$arg2())))
+				.on(QOM.Lower.class, (c, e) -> Functions.toLower(c.expression(e.$arg1())))
+				.on(QOM.Ltrim.class, (c, e) -> Functions.ltrim(c.expression(e.$arg1())))
+				.on(QOM.Replace.class,
+						(c, e) -> Functions.replace(c.expression(e.$arg1()), c.expression(e.$arg2()),
+								c.expression(e.$arg3())))
+				.on(QOM.Reverse.class, (c, e) -> Functions.reverse(c.expression(e.$arg1())))
+				.on(QOM.Right.class, (c, e) -> Functions.right(c.expression(e.$arg1()), c.expression(e.$arg2())))
+				.on(QOM.Rtrim.class, (c, e) -> Functions.rtrim(c.expression(e.$arg1())))
+				.on(QOM.Substring.class, TranslationContext::substring).on(QOM.Trim.class, TranslationContext::trim)
+				.on(QOM.Upper.class, (c, e) -> Functions.toUpper(c.expression(e.$arg1())))
+
+				// https://neo4j.com/docs/cypher-manual/current/functions/scalar/
+				.on(QOM.Coalesce.class, TranslationContext::coalesce)
+				.on(QOM.Nvl.class,
+						(TranslationContext c, QOM.Nvl<?> e) -> Functions.coalesce(c.expression(e.$arg1()),
+								c.expression(e.$arg2())))
+
+				// https://neo4j.com/docs/cypher-manual/current/syntax/expressions/
+				.on(QOM.Nullif.class,
+						(TranslationContext c, QOM.Nullif<?> e) -> Cypher.caseExpression()
+								.when(c.expression(e.$arg1()).eq(c.expression(e.$arg2()))).then(Cypher.literalNull())
+								.elseDefault(c.expression(e.$arg1())))
+				.on(QOM.Nvl2.class,
+						(TranslationContext c, QOM.Nvl2<?> e) -> Cypher.caseExpression()
+								.when(c.expression(e.$arg1()).isNotNull()).then(c.expression(e.$arg2()))
+								.elseDefault(c.expression(e.$arg3())))
+				.on(QOM.CaseSimple.class, TranslationContext::caseSimple)
+				.on(QOM.CaseSearched.class, TranslationContext::caseSearched)
+
+				// Aggregates
+				.on(QOM.Count.class, TranslationContext::count)
+				.on(QOM.Sum.class,
+						(c, e) -> c.aggregate(e, e.$field(), e.$distinct(), Functions::sum, Functions::sumDistinct))
+				.on(QOM.Avg.class,
+						(c, e) -> c.aggregate(e, e.$field(), e.$distinct(), Functions::avg, Functions::avgDistinct))
+				.on(QOM.Min.class,
+						(TranslationContext c, QOM.Min<?> e) -> c.aggregate(e, e.$field(), false, Functions::min, null))
+				.on(QOM.Max.class,
+						(TranslationContext c, QOM.Max<?> e) -> c.aggregate(e, e.$field(), false, Functions::max, null))
+				.on(QOM.ArrayAgg.class,
+						(TranslationContext c, QOM.ArrayAgg<?> e) -> c.aggregate(e, e.$field(), e.$distinct(),
+								Functions::collect, Functions::collectDistinct))
+				.on(QOM.StddevSamp.class, (c, e) -> c.aggregate(e, e.$field(), false, Functions::stDev, null))
+				.on(QOM.StddevPop.class, (c, e) -> c.aggregate(e, e.$field(), false, Functions::stDevP, null))
+
+				// Others
+				.on(QOM.Excluded.class, TranslationContext::excluded).on(QOM.Cast.class, TranslationContext::cast)
+				.on(org.jooq.True.class, (c, e) -> Cypher.literalTrue())
+				.on(org.jooq.False.class, (c, e) -> Cypher.literalFalse())
+				.on(QOM.Null.class, (c, e) -> Cypher.literalNull())
+				.on(org.jooq.Null.class, (c, e) -> Cypher.literalNull())
+				.on(QOM.Function.class, TranslationContext::function).build((c, f) -> {
+					throw unsupported(f);
+				});
+	}
+
+	/**
+	 * Creates the table of handlers for all supported conditions. Handlers of extensions
+	 * are registered before the built-in ones.
+	 * @param handlers the handlers contributed by extensions
+	 * @return the dispatch table for conditions
+	 */
+	private static DispatchTable<org.jooq.Condition, TranslationContext, Condition> createConditionTable(
+			HandlerRegistry handlers) {
+
+		var builder = DispatchTable.<org.jooq.Condition, TranslationContext, Condition>builder();
+		handlers.contributeConditions(builder);
+		return builder.on(QOM.And.class, (c, e) -> c.condition(e.$arg1()).and(c.condition(e.$arg2())))
+				.on(QOM.Or.class, (c, e) -> c.condition(e.$arg1()).or(c.condition(e.$arg2())))
+				.on(QOM.Xor.class, (c, e) -> c.condition(e.$arg1()).xor(c.condition(e.$arg2())))
+				.on(QOM.Not.class, (c, e) -> c.condition(e.$arg1()).not())
+				.on(QOM.Eq.class,
+						(TranslationContext c, QOM.Eq<?> e) -> c.comparison(e.$arg1(), e.$arg2(), Expression::eq,
+								Expression::eq))
+				.on(QOM.Gt.class,
+						(TranslationContext c, QOM.Gt<?> e) -> c.comparison(e.$arg1(), e.$arg2(), Expression::gt,
+								Expression::lt))
+				.on(QOM.Ge.class,
+						(TranslationContext c, QOM.Ge<?> e) -> c.comparison(e.$arg1(), e.$arg2(), Expression::gte,
+								Expression::lte))
+				.on(QOM.Lt.class,
+						(TranslationContext c, QOM.Lt<?> e) -> c.comparison(e.$arg1(), e.$arg2(), Expression::lt,
+								Expression::gt))
+				.on(QOM.Le.class,
+						(TranslationContext c, QOM.Le<?> e) -> c.comparison(e.$arg1(), e.$arg2(), Expression::lte,
+								Expression::gte))
+				.on(QOM.Between.class, (TranslationContext c, QOM.Between<?> e) -> c.between(e))
+				.on(QOM.InList.class, (TranslationContext c, QOM.InList<?> e) -> c.inList(e, e.$arg1(), e.$arg2()))
+				.on(QOM.NotInList.class,
+						(TranslationContext c, QOM.NotInList<?> e) -> c.inList(e, e.$arg1(), e.$arg2()).not())
+				.on(QOM.In.class, TranslationContext::inSubquery)
+				.on(QOM.Ne.class,
+						(TranslationContext c, QOM.Ne<?> e) -> c.expression(e.$arg1()).ne(c.expression(e.$arg2())))
+				.on(QOM.IsNull.class, (c, e) -> c.expression(e.$arg1()).isNull())
+				.on(QOM.IsNotNull.class, (c, e) -> c.expression(e.$arg1()).isNotNull())
+				.on(QOM.RowEq.class,
+						(TranslationContext c, QOM.RowEq<?> e) -> c.rowEquality(e.$arg1(), e.$arg2(), Expression::eq))
+				.on(QOM.RowNe.class,
+						(TranslationContext c, QOM.RowNe<?> e) -> c.rowEquality(e.$arg1(), e.$arg2(), Expression::ne))
+				.on(QOM.RowGt.class,
+						(TranslationContext c, QOM.RowGt<?> e) -> c.rowCondition(e.$arg1(), e.$arg2(), Expression::gt,
+								Expression::gt, Expression::gte))
+				.on(QOM.RowGe.class,
+						(TranslationContext c, QOM.RowGe<?> e) -> c.rowCondition(e.$arg1(), e.$arg2(), Expression::gt,
+								Expression::gte, Expression::gte))
+				.on(QOM.RowLt.class,
+						(TranslationContext c, QOM.RowLt<?> e) -> c.rowCondition(e.$arg1(), e.$arg2(), Expression::lt,
+								Expression::lt, Expression::lte))
+				.on(QOM.RowLe.class,
+						(TranslationContext c, QOM.RowLe<?> e) -> c.rowCondition(e.$arg1(), e.$arg2(), Expression::lt,
+								Expression::lte, Expression::lte))
+				.on(QOM.RowIsNull.class,
+						(c, e) -> e.$arg1().$fields().stream().map((f) -> c.expression((Field<?>) f).isNull())
+								.reduce(Condition::and).get())
+				.on(QOM.RowIsNotNull.class,
+						(c, e) -> e.$arg1().$fields().stream().map((f) -> c.expression((Field<?>) f).isNotNull())
+								.reduce(Condition::and).get())
+				.on(QOM.Like.class, TranslationContext::like).build((c, e) -> {
+					throw unsupported(e);
+				});
+	}
+
+	// The following three methods are the phases of a translation, they are package
+	// private so that they can be benchmarked individually.
+
+	Query parse(String sql) {
+		return this.mappings.parser().parseQuery(sql);
+	}
+
+	Statement statement(Query query) {
+		return new TranslationContext(this.mappings.catalog(), null).statement(query);
+	}
+
+	String render(Statement statement) {
+		return this.renderer.render(statement);
+	}
+
+	private static String labelOrType(MappingCatalog catalog, Table<?> tableOrAlias) {
+
+		var t = unalias(tableOrAlias);
+		var name = t.getName();
+		return t.getQualifiedName().qualified() ? name : catalog.label(name);
+	}
+
+	private static Table<?> unalias(Table<?> tableOrAlias) {
+		return (tableOrAlias instanceof TableAlias<?> ta) ? ta.$aliased() : tableOrAlias;
+	}
+
+	private static SelectFieldOrAsterisk unalias(SelectFieldOrAsterisk t) {
+		return (t instanceof QOM.FieldAlias<?> fa) ? fa.$aliased() : t;
+	}
+
+	/**
+	 * Checks whether a list of fields consists only of inline literals.
+	 * @param fields the fields to check
+	 * @return {@literal true} if all fields are inline literals
+	 */
+	private static boolean isLiteralList(List<? extends Field<?>> fields) {
+		return !fields.isEmpty() && fields.stream().allMatch((f) -> f instanceof Param<?> p && p.$inline());
+	}
+
+	/**
+	 * Checks whether a list of fields consists only of bind parameters and has more than
+	 * one element. A single bind parameter is expected to be a list already.
+	 * @param fields the fields to check
+	 * @return {@literal true} if all fields are bind parameters
+	 */
+	private static boolean isBindParameterList(List<? extends Field<?>> fields) {
+		return fields.size() > 1
+				&& fields.stream().allMatch((f) -> f instanceof Param<?> p && !p.$inline() && p.getParamName() != null);
+	}
+
+	/**
+	 * Retrieves the value of a literal or of a list of literals collected while rendering
+	 * the shape of a statement.
+	 * @param literal a literal or an {@code IN} list of literals
+	 * @return the value of the literal, a list of values for an {@code IN} list
+	 */
+	private static Object literalValue(QueryPart literal) {
+
+		if (literal instanceof QOM.InList<?> in) {
+			return in.$arg2().stream().map((f) -> ((Param<?>) f).getValue()).toList();
 		}
-		else if (s instanceof Field<?> f) {
-			return expression(f);
-		}
-		else {
-			throw unsupported(s);
+		else if (literal instanceof QOM.NotInList<?> in) {
+			return in.$arg2().stream().map((f) -> ((Param<?>) f).getValue()).toList();
 		}
+		return ((Param<?>) literal).getValue();
 	}
 
-	private SortItem expression(SortField<?> s) {
-		return Cypher.sort(expression(s.$field()),
-				SortItem.Direction.valueOf(s.$sortOrder().name().toUpperCase(Locale.ROOT)));
+	private static IllegalArgumentException unsupported(QueryPart p) {
+		return new IllegalArgumentException("Unsupported SQL expression: " + p);
 	}
 
-	private Expression expression(Field<?> f) {
-		if (f instanceof Param<?> p) {
-			if (p.$inline()) {
-				return Cypher.literalOf(p.getValue());
+	private static String relationshipTypeName(MappingCatalog catalog, Table<?> lhs, Field<?> lhsJoinColumn) {
+
+		var name = Objects.requireNonNull(lhsJoinColumn.getQualifiedName().last());
+		var type = catalog.relationshipType(unalias(lhs).getName(), name);
+		return (type != null) ? type : name.toUpperCase(Locale.ROOT);
+	}
+
+	/**
+	 * Holds the state of a single translation. A new context is created for each call to
+	 * {@link #convert(String)} and is never shared between threads.
+	 */
+	private final class TranslationContext implements TranslatorExtension.Context {
+
+		private final MappingCatalog catalog;
+
+		/**
+		 * Names of the tables in the {@code FROM} clause, keyed by their aliases.
+		 */
+		private final Map<String, String> tableNamesByAlias = new HashMap<>();
+
+		/**
+		 * Resolved tables and joins, keyed by identity of the jOOQ table instance.
+		 */
+		private final Map<Table<?>, PatternElement> resolvedTables = new IdentityHashMap<>();
+
+		/**
+		 * Named parameters of the statement with their values.
+		 */
+		private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+		/**
+		 * Positions of the literals and lists of literals to be extracted into parameters
+		 * in the shape of the statement, {@literal null} if literals should be rendered
+		 * as is.
+		 */
+		private final Map<QueryPart, Integer> literalIndexes;
+
+		private final List<Binding> bindings = new ArrayList<>();
+
+		private boolean allLiteralsExtracted = true;
+
+		/**
+		 * Labels of all nodes created for tables.
+		 */
+		private final Set<String> labels = new HashSet<>();
+
+		/**
+		 * Types of all relationships created for joins.
+		 */
+		private final Set<String> relationshipTypes = new HashSet<>();
+
+		/**
+		 * Number of jOOQ query parts visited.
+		 */
+		private int nodeCount;
+
+		/**
+		 * The fields projected by a {@code WITH} stage of a grouped query, references to
+		 * them must be rendered by name.
+		 */
+		private Projection projection;
+
+		/**
+		 * The node unqualified columns refer to in statements on a single table.
+		 */
+		private Node unqualifiedColumnsTarget;
+
+		/**
+		 * Nodes of the tables of the {@code IN} subquery currently being translated,
+		 * keyed by the names columns are qualified with, {@literal null} outside
+		 * subqueries.
+		 */
+		private Map<String, PatternElement> subqueryScope;
+
+		/**
+		 * Number of nodes created for tables of subqueries.
+		 */
+		private int subqueryNodeCount;
+
+		/**
+		 * The values proposed for insertion by column name, referred to as
+		 * {@code excluded} in the update set of an upsert.
+		 */
+		private Map<String, Expression> excludedValues;
+
+		/**
+		 * The names of the bind parameters of the statement being translated.
+		 */
+		private Set<String> statementParameterNames = Set.of();
+
+		TranslationContext(MappingCatalog catalog, Map<QueryPart, Integer> literalIndexes) {
+			this.catalog = catalog;
+			this.literalIndexes = literalIndexes;
+		}
+
+		Statement statement(Query query) {
+
+			++this.nodeCount;
+			this.statementParameterNames = query.getParams().keySet();
+			if (query instanceof Select<?> s) {
+				return statement(s);
 			}
-			else if (p.getParamName() != null) {
-				return Cypher.parameter(p.getParamName(), p.getValue());
+			else if (query instanceof QOM.Delete<?> d) {
+				return statement(d);
 			}
-			else {
-				return Cypher.anonParameter(p.getValue());
+			else if (query instanceof QOM.Truncate<?> t) {
+				return statement(t);
 			}
-		}
-		else if (f instanceof TableField<?, ?> tf && tf.getTable() != null) {
-			var pe = resolveTableOrJoin(tf.getTable());
-			if (pe instanceof Node node) {
-				return node.property(tf.getName());
+			else if (query instanceof QOM.Insert<?> t) {
+				return statement(t);
 			}
-			else if (pe instanceof Relationship rel) {
-				return rel.property(tf.getName());
+			else if (query instanceof QOM.Update<?> u) {
+				return statement(u);
 			}
 			else {
-				throw unsupported(tf);
+				throw unsupported(query);
 			}
 		}
-		else if (f instanceof QOM.Add<?> e) {
-			return expression(e.$arg1()).add(expression(e.$arg2()));
-		}
-		else if (f instanceof QOM.Sub<?> e) {
-			return expression(e.$arg1()).subtract(expression(e.$arg2()));
-		}
-		else if (f instanceof QOM.Mul<?> e) {
-			return expression(e.$arg1()).multiply(expression(e.$arg2()));
-		}
-		else if (f instanceof QOM.Square<?> e) {
-			return expression(e.$arg1()).multiply(expression(e.$arg1()));
-		}
-		else if (f instanceof QOM.Div<?> e) {
-			return expression(e.$arg1()).divide(expression(e.$arg2()));
-		}
-		else if (f instanceof QOM.Neg<?> e) {
-			throw unsupported(e);
-		}
 
-		// https://neo4j.com/docs/cypher-manual/current/functions/mathematical-numeric/
-		else if (f instanceof QOM.Abs<?> e) {
-			return org.neo4j.cypherdsl.core.Functions.abs(expression(e.$arg1()));
-		}
-		else if (f instanceof QOM.Ceil<?> e) {
-			return org.neo4j.cypherdsl.core.Functions.ceil(expression(e.$arg1()));
-		}
-		else if (f instanceof QOM.Floor<?> e) {
-			return org.neo4j.cypherdsl.core.Functions.floor(expression(e.$arg1()));
+		Statement statement(QOM.Delete<?> d) {
+			Node e = (Node) resolveTableOrJoin(d.$from());
+
+			OngoingReadingWithoutWhere m1 = Cypher.match(e);
+			OngoingReadingWithWhere m2 = (d.$where() != null) ? m1.where(condition(d.$where()))
+					: (OngoingReadingWithWhere) m1;
+			var batchSize = Translator.this.config.getBatchSizes().get(StatementType.DELETE);
+			if (batchSize == null) {
+				return m2.delete(e.asExpression()).build();
+			}
+			return m2.callInTransactions(Cypher.with(e).delete(e.asExpression()).build(), batchSize).build();
 		}
-		else if (f instanceof QOM.Round<?> e) {
-			if (e.$arg2() == null) {
-				return org.neo4j.cypherdsl.core.Functions.round(expression(e.$arg1()));
+
+		/**
+		 * Translates an update into {@code MATCH ... WHERE ... SET}. Multiple columns are
+		 * updated with a single map merge, so that all values are computed from the
+		 * properties before the update, as in SQL.
+		 * @param u the update
+		 * @return the translated statement
+		 */
+		Statement statement(QOM.Update<?> u) {
+
+			if (!u.$from().isEmpty() || u.$limit() != null || u.$with() != null) {
+				throw unsupported(u);
+			}
+			Node e = (Node) resolveTableOrJoin(u.$table());
+			this.unqualifiedColumnsTarget = e;
+
+			var columns = new ArrayList<String>(u.$set().size());
+			var values = new ArrayList<Expression>(u.$set().size());
+			u.$set().forEach((column, value) -> {
+				if (!(column instanceof Field<?> columnField) || !(value instanceof Field<?> valueField)) {
+					throw unsupported(u);
+				}
+				columns.add(columnField.getName());
+				values.add(expression(valueField));
+			});
+
+			OngoingReadingWithoutWhere m1 = Cypher.match(e);
+			OngoingReadingWithWhere m2 = (u.$where() != null) ? m1.where(condition(u.$where()))
+					: (OngoingReadingWithWhere) m1;
+
+			Expression set;
+			if (columns.size() == 1) {
+				set = e.property(columns.get(0)).to(values.get(0));
 			}
 			else {
-				return org.neo4j.cypherdsl.core.Functions.round(expression(e.$arg1()), expression(e.$arg2()));
+				Object[] keysAndValues = new Object[columns.size() * 2];
+				for (int i = 0; i < columns.size(); ++i) {
+					keysAndValues[i * 2] = columns.get(i);
+					keysAndValues[i * 2 + 1] = values.get(i);
+				}
+				set = e.mutate(Cypher.mapOf(keysAndValues));
 			}
-		}
-		else if (f instanceof QOM.Sign e) {
-			return org.neo4j.cypherdsl.core.Functions.sign(expression(e.$arg1()));
-		}
-		else if (f instanceof QOM.Rand) {
-			return Functions.rand();
-		}
 
-		// https://neo4j.com/docs/cypher-manual/current/functions/mathematical-logarithmic/
-		else if (f instanceof QOM.Euler) {
-			return Functions.e();
-		}
-		else if (f instanceof QOM.Exp e) {
-			return Functions.exp(expression(e.$arg1()));
-		}
-		else if (f instanceof QOM.Ln e) {
-			return org.neo4j.cypherdsl.core.Functions.log(expression(e.$arg1()));
-		}
-		else if (f instanceof QOM.Log e) {
-			return org.neo4j.cypherdsl.core.Functions.log(expression(e.$arg1()))
-					.divide(org.neo4j.cypherdsl.core.Functions.log(expression(e.$arg2())));
-		}
-		else if (f instanceof QOM.Log10 e) {
-			return org.neo4j.cypherdsl.core.Functions.log10(expression(e.$arg1()));
+			var batchSize = Translator.this.config.getBatchSizes().get(StatementType.UPDATE);
+			if (batchSize == null) {
+				return m2.set(set).build();
+			}
+			return m2.callInTransactions(Cypher.with(e).set(set).build(), batchSize).build();
 		}
-		else if (f instanceof QOM.Sqrt e) {
-			return org.neo4j.cypherdsl.core.Functions.sqrt(expression(e.$arg1()));
+
+		Statement statement(QOM.Truncate<?> t) {
+			Node e = (Node) resolveTableOrJoin(t.$table());
+
+			var batchSize = Translator.this.config.getBatchSizes().get(StatementType.TRUNCATE);
+			if (batchSize == null) {
+				return Cypher.match(e).detachDelete(e.asExpression()).build();
+			}
+			return Cypher.match(e).callInTransactions(Cypher.with(e).detachDelete(e.asExpression()).build(), batchSize)
+					.build();
 		}
-		// TODO: Hyperbolic functions
 
-		// https://neo4j.com/docs/cypher-manual/current/functions/mathematical-trigonometric/
-		else if (f instanceof QOM.Acos e) {
-			return org.neo4j.cypherdsl.core.Functions.acos(expression(e.$arg1()));
+		ResultStatement statement(Select<?> x) {
+
+			// Done lazy as otherwise the property containers won't be resolved
+			Supplier<List<Expression>> resultColumnsSupplier = () -> x.$select().stream()
+					.map((t) -> (Expression) expression(t)).toList();
+
+			if (x.$from().isEmpty()) {
+				return Cypher.returning(resultColumnsSupplier.get()).build();
+			}
+
+			OngoingReadingWithoutWhere m1 = Cypher.match(x.$from().stream().map(this::resolveTableOrJoin).toList());
+
+			OngoingReadingWithWhere m2 = (x.$where() != null) ? m1.where(condition(x.$where()))
+					: (OngoingReadingWithWhere) m1;
+
+			if (requiresProjection(x)) {
+				return grouped(x, m2);
+			}
+
+			var returning = m2.returning(resultColumnsSupplier.get())
+					.orderBy(x.$orderBy().stream().map(this::expression).toList());
+			return paged(x, returning);
 		}
-		else if (f instanceof QOM.Asin e) {
-			return org.neo4j.cypherdsl.core.Functions.asin(expression(e.$arg1()));
+
+		/**
+		 * Cypher groups by all non-aggregated expressions of a projection. A grouped
+		 * query can therefore be returned as is, unless it has a {@code HAVING} clause,
+		 * is grouped by keys that are not selected or is ordered, in which case the
+		 * aggregates must be projected with {@code WITH} first.
+		 * @param x the select to check
+		 * @return {@literal true} if the select needs a {@code WITH} stage
+		 */
+		private boolean requiresProjection(Select<?> x) {
+
+			if (x.$having() != null) {
+				return true;
+			}
+			if (x.$groupBy().isEmpty()) {
+				return false;
+			}
+			var selected = x.$select().stream().map(Translator::unalias).toList();
+			return !x.$orderBy().isEmpty() || !x.$groupBy().stream()
+					.allMatch((key) -> groupingKey(x, key) != null && selected.contains(groupingKey(x, key)));
+		}
+
+		/**
+		 * Projects the selected fields and the grouping keys with {@code WITH}, filters
+		 * the projection with the {@code HAVING} condition and returns the selected
+		 * fields by name. Aggregates used only in {@code HAVING} or {@code ORDER BY} are
+		 * projected as well.
+		 * @param x the grouped select
+		 * @param match the match clause
+		 * @return the resulting statement
+		 */
+		private ResultStatement grouped(Select<?> x, OngoingReadingWithWhere match) {
+
+			var projection = new Projection();
+			var returnItems = new ArrayList<Expression>();
+			for (var t : x.$select()) {
+				if (!(unalias(t) instanceof Field<?> field)) {
+					throw unsupported(t);
+				}
+				var name = projection.add(field,
+						(t instanceof QOM.FieldAlias<?> fa) ? fa.$alias().last() : field.getName(), this::expression);
+				if (t instanceof QOM.FieldAlias<?> fa) {
+					projection.alias(fa.$alias(), name);
+				}
+				returnItems.add(Cypher.name(name));
+			}
+			for (var key : x.$groupBy()) {
+				var field = groupingKey(x, key);
+				if (field == null) {
+					throw unsupported(key);
+				}
+				if (!projection.contains(field)) {
+					projection.add(field, field.getName(), this::expression);
+				}
+			}
+
+			this.projection = projection;
+			try {
+				var having = (x.$having() != null) ? condition(x.$having()) : null;
+				var sortItems = x.$orderBy().stream().map((t) -> sort(t, groupingKey(x, t.$field()))).toList();
+				var with = match.with(projection.items);
+				var returning = ((having != null) ? with.where(having) : with).returning(returnItems)
+						.orderBy(sortItems);
+				return paged(x, returning);
+			}
+			finally {
+				this.projection = null;
+			}
 		}
-		else if (f instanceof QOM.Atan e) {
-			return org.neo4j.cypherdsl.core.Functions.atan(expression(e.$arg1()));
+
+		/**
+		 * Resolves a {@code GROUP BY} or {@code ORDER BY} element to a field, ordinals
+		 * refer to the select list.
+		 * @param x the select
+		 * @param key the grouping or sort key
+		 * @return the field, {@literal null} if the key is not a field
+		 */
+		private Field<?> groupingKey(Select<?> x, QueryPart key) {
+
+			if (key instanceof Param<?> p && p.getValue() instanceof Number n && n.intValue() >= 1
+					&& n.intValue() <= x.$select().size()) {
+				// Ordinals are markers in the shape of the statement, but the translation
+				// depends on their value, so the template must not be cached
+				this.allLiteralsExtracted &= this.literalIndexes == null;
+				var selected = unalias(x.$select().get(n.intValue() - 1));
+				return (selected instanceof Field<?> f) ? f : null;
+			}
+			return (key instanceof Field<?> f) ? f : null;
 		}
-		else if (f instanceof QOM.Atan2 e) {
-			return org.neo4j.cypherdsl.core.Functions.atan2(expression(e.$arg1()), expression(e.$arg2()));
+
+		private ResultStatement paged(Select<?> x, StatementBuilder.OngoingMatchAndReturnWithOrder returning) {
+
+			StatementBuilder.TerminalExposesLimit skipped = (x.$offset() != null)
+					? returning.skip(expression(x.$offset())) : returning;
+			StatementBuilder.BuildableStatement<ResultStatement> buildableStatement = (x.$limit() != null)
+					? skipped.limit(expression(x.$limit())) : skipped;
+
+			return buildableStatement.build();
 		}
-		else if (f instanceof QOM.Cos e) {
-			return org.neo4j.cypherdsl.core.Functions.cos(expression(e.$arg1()));
+
+		Statement statement(QOM.Insert<?> insert) {
+			var table = insert.$into();
+			// TODO handle if this resolves to something unexpectedly different
+			var node = (Node) this.resolveTableOrJoin(table);
+
+			var rows = insert.$values();
+			var columns = insert.$columns();
+
+			if (insert.$onDuplicateKeyUpdate() || insert.$onDuplicateKeyIgnore()) {
+				return upsert(insert, node);
+			}
+			else if (rows.size() == 1) {
+				Object[] keysAndValues = new Object[columns.size() * 2];
+				var row = rows.get(0);
+				for (int i = 0; i < columns.size(); ++i) {
+					keysAndValues[i * 2] = columns.get(i).getName();
+					keysAndValues[i * 2 + 1] = expression(row.field(i));
+				}
+				return Cypher.create(node.withProperties(keysAndValues)).build();
+			}
+			else if (Translator.this.config.isParameterizedInserts() && InsertRows.containsOnlyLiterals(rows)) {
+				// The values are not bound to the shape of the statement, so the template
+				// must not be cached
+				this.allLiteralsExtracted = false;
+				var rowsParameter = freshParameterName("rows");
+				this.parameters.put(rowsParameter, new InsertRows(columns, rows));
+				var properties = Cypher.name("properties");
+				var batchSize = Translator.this.config.getBatchSizes().get(StatementType.INSERT);
+				var unwind = Cypher.unwind(Cypher.parameter(rowsParameter)).as(properties);
+				if (batchSize == null) {
+					return unwind.create(node).set(node, properties).build();
+				}
+				return unwind
+						.callInTransactions(Cypher.create(node).set(node, properties).build(), batchSize, properties)
+						.build();
+			}
+			else {
+				return Cypher.unwind(rowsAsMaps(columns, rows)).as("properties").create(node)
+						.set(node, Cypher.name("properties")).build();
+			}
 		}
-		else if (f instanceof QOM.Cot e) {
-			return org.neo4j.cypherdsl.core.Functions.cot(expression(e.$arg1()));
+
+		/**
+		 * Translates {@code INSERT ... ON CONFLICT} into a {@code MERGE} on the conflict
+		 * columns. The remaining columns are set when the node is created, the update set
+		 * of {@code DO UPDATE} when it already exists. Multiple rows are unwound, from
+		 * the {@code rows} parameter if inserts are parameterized.
+		 * @param insert the insert
+		 * @param node the node to merge
+		 * @return the translated statement
+		 */
+		private Statement upsert(QOM.Insert<?> insert, Node node) {
+
+			var keys = insert.$onConflict();
+			var rows = insert.$values();
+			if (keys.isEmpty() || rows.isEmpty() || insert.$onConflictWhere() != null
+					|| insert.$updateWhere() != null) {
+				throw unsupported(insert);
+			}
+			this.unqualifiedColumnsTarget = node;
+
+			var columns = insert.$columns();
+			var values = new LinkedHashMap<String, Expression>();
+			var properties = Cypher.name("properties");
+			StatementBuilder.OngoingReading unwind = null;
+			Integer batchSize = null;
+			if (rows.size() == 1) {
+				for (int i = 0; i < columns.size(); ++i) {
+					values.put(columns.get(i).getName(), expression(rows.get(0).field(i)));
+				}
+			}
+			else {
+				columns.forEach(
+						(column) -> values.put(column.getName(), Cypher.property(properties, column.getName())));
+				if (Translator.this.config.isParameterizedInserts() && InsertRows.containsOnlyLiterals(rows)) {
+					// See statement(QOM.Insert)
+					this.allLiteralsExtracted = false;
+					var rowsParameter = freshParameterName("rows");
+					this.parameters.put(rowsParameter, new InsertRows(columns, rows));
+					unwind = Cypher.unwind(Cypher.parameter(rowsParameter)).as(properties);
+					batchSize = Translator.this.config.getBatchSizes().get(StatementType.INSERT);
+				}
+				else {
+					unwind = Cypher.unwind(rowsAsMaps(columns, rows)).as(properties);
+				}
+			}
+
+			var keyNames = keys.stream().map(Field::getName).toList();
+			var keyProperties = new ArrayList<>();
+			for (var key : keyNames) {
+				if (!values.containsKey(key)) {
+					throw unsupported(insert);
+				}
+				keyProperties.add(key);
+				keyProperties.add(values.get(key));
+			}
+			var onCreate = new ArrayList<>();
+			values.forEach((column, value) -> {
+				if (!keyNames.contains(column)) {
+					onCreate.add(column);
+					onCreate.add(value);
+				}
+			});
+			var onMatch = new ArrayList<>();
+			this.excludedValues = values;
+			try {
+				insert.$updateSet().forEach((column, value) -> {
+					if (!(column instanceof Field<?> columnField) || !(value instanceof Field<?> valueField)) {
+						throw unsupported(insert);
+					}
+					onMatch.add(columnField.getName());
+					onMatch.add(expression(valueField));
+				});
+			}
+			finally {
+				this.excludedValues = null;
+			}
+
+			var merged = node.withProperties(keyProperties.toArray());
+			var merge = (unwind != null && batchSize == null) ? unwind.merge(merged) : Cypher.merge(merged);
+			StatementBuilder.ExposesMergeAction actions = merge;
+			StatementBuilder.BuildableStatement<?> statement = merge;
+			if (!onCreate.isEmpty()) {
+				var action = actions.onCreate().mutate(node, Cypher.mapOf(onCreate.toArray()));
+				actions = action;
+				statement = action;
+			}
+			if (!onMatch.isEmpty()) {
+				statement = actions.onMatch().mutate(node, Cypher.mapOf(onMatch.toArray()));
+			}
+
+			if (unwind != null && batchSize != null) {
+				return unwind.callInTransactions(statement.build(), batchSize, properties).build();
+			}
+			return statement.build();
 		}
-		else if (f instanceof QOM.Degrees e) {
-			return org.neo4j.cypherdsl.core.Functions.degrees(expression(e.$arg1()));
+
+		/**
+		 * Computes the name of a parameter introduced by the translation. The name is the
+		 * given base name unless the statement has a bind parameter of that name already
+		 * or it has been introduced before, in which case a number is appended.
+		 * @param base the preferred name
+		 * @return a name not used by any other parameter of the statement
+		 */
+		private String freshParameterName(String base) {
+
+			var name = base;
+			for (int i = 1; isParameterNameUsed(name); ++i) {
+				name = base + i;
+			}
+			return name;
+		}
+
+		/**
+		 * Checks whether a name is used by a bind parameter of the statement or by a
+		 * parameter introduced by the translation.
+		 * @param name the name to check
+		 * @return {@literal true} if the name is already taken
+		 */
+		private boolean isParameterNameUsed(String name) {
+			return this.statementParameterNames.contains(name) || this.parameters.containsKey(name)
+					|| this.bindings.stream().anyMatch((b) -> b.name().equals(name));
+		}
+
+		/**
+		 * Translates the rows of an insert into a list of maps from column names to
+		 * values.
+		 * @param columns the columns of the insert
+		 * @param rows the rows of the insert
+		 * @return a list of maps
+		 */
+		private Expression rowsAsMaps(List<? extends Field<?>> columns, List<? extends Row> rows) {
+
+			return Cypher.listOf(rows.stream().map((row) -> {
+				Object[] keysAndValues = new Object[columns.size() * 2];
+				for (int i = 0; i < columns.size(); ++i) {
+					keysAndValues[i * 2] = columns.get(i).getName();
+					keysAndValues[i * 2 + 1] = expression(row.field(i));
+				}
+				return (Expression) Cypher.mapOf(keysAndValues);
+			}).toList());
 		}
-		else if (f instanceof QOM.Pi) {
-			return Functions.pi();
+
+		private Expression excluded(QOM.Excluded<?> e) {
+
+			var value = (this.excludedValues != null) ? this.excludedValues.get(e.$field().getName()) : null;
+			if (value == null) {
+				throw unsupported(e);
+			}
+			return value;
 		}
-		else if (f instanceof QOM.Radians e) {
-			return org.neo4j.cypherdsl.core.Functions.radians(expression(e.$arg1()));
+
+		private Expression expression(SelectFieldOrAsterisk t) {
+			if (t instanceof SelectField<?> s) {
+				return expression(s);
+			}
+			else if (t instanceof Asterisk) {
+				return Cypher.asterisk();
+			}
+			else if (t instanceof QualifiedAsterisk q && qualifier(q.$table()) instanceof Node node) {
+				return node.getSymbolicName().orElseGet(() -> Cypher.name(q.$table().getName()));
+			}
+			else {
+				throw unsupported(t);
+			}
 		}
-		else if (f instanceof QOM.Sin e) {
-			return org.neo4j.cypherdsl.core.Functions.sin(expression(e.$arg1()));
+
+		private Expression expression(SelectField<?> s) {
+			if (s instanceof QOM.FieldAlias<?> fa) {
+				return expression(fa.$aliased()).as(fa.$alias().last());
+			}
+			else if (s instanceof Field<?> f) {
+				return expression(f);
+			}
+			else {
+				throw unsupported(s);
+			}
 		}
-		else if (f instanceof QOM.Tan e) {
-			return org.neo4j.cypherdsl.core.Functions.tan(expression(e.$arg1()));
+
+		private SortItem expression(SortField<?> s) {
+			return sort(s, s.$field());
 		}
 
-		// https://neo4j.com/docs/cypher-manual/current/functions/string/
-		else if (f instanceof QOM.CharLength e) {
-			return Functions.size(expression(e.$arg1()));
+		private SortItem sort(SortField<?> s, Field<?> field) {
+			var direction = switch (s.$sortOrder()) {
+				case ASC -> SortItem.Direction.ASC;
+				case DESC -> SortItem.Direction.DESC;
+				case DEFAULT -> SortItem.Direction.UNDEFINED;
+			};
+			return Cypher.sort(expression(field), direction);
 		}
-		else if (f instanceof QOM.Left e) {
-			return Functions.left(expression(e.$arg1()), expression(e.$arg2()));
+
+		@Override
+		public Expression expression(Field<?> f) {
+			++this.nodeCount;
+			if (f == null) {
+				return Cypher.literalNull();
+			}
+			if (this.projection != null) {
+				var name = this.projection.get(f, this::unprojected);
+				if (name != null) {
+					return Cypher.name(name);
+				}
+			}
+			return Translator.this.expressions.apply(this, f);
 		}
-		else if (f instanceof QOM.Lower e) {
-			return org.neo4j.cypherdsl.core.Functions.toLower(expression(e.$arg1()));
+
+		private Expression unprojected(Field<?> f) {
+			var current = this.projection;
+			this.projection = null;
+			try {
+				return expression(f);
+			}
+			finally {
+				this.projection = current;
+			}
 		}
-		else if (f instanceof QOM.Ltrim e) {
-			return org.neo4j.cypherdsl.core.Functions.ltrim(expression(e.$arg1()));
+
+		private Expression count(QOM.Count c) {
+			if (c.$field() == COUNT_ASTERISK) {
+				return aggregate(c, null, false, (e) -> Functions.count(Cypher.asterisk()), null);
+			}
+			return aggregate(c, c.$field(), c.$distinct(), Functions::count, Functions::countDistinct);
 		}
-		else if (f instanceof QOM.Replace e) {
-			return Functions.replace(expression(e.$arg1()), expression(e.$arg2()), expression(e.$arg3()));
+
+		private Expression aggregate(AggregateFunction<?> f, Field<?> argument, boolean distinct,
+				Function<Expression, Expression> all, Function<Expression, Expression> distinctValues) {
+
+			if (f.$filterWhere() != null || (f instanceof QOM.WindowFunction<?> w
+					&& (w.$windowSpecification() != null || w.$windowDefinition() != null))) {
+				throw unsupported(f);
+			}
+			var argumentExpression = (argument != null) ? expression(argument) : null;
+			return (distinct && distinctValues != null) ? distinctValues.apply(argumentExpression)
+					: all.apply(argumentExpression);
+		}
+
+		/**
+		 * Checks whether predicates on the given field should be written so that they can
+		 * be answered from an index.
+		 * @param f the field to check
+		 * @return {@literal true} if index-friendly predicates should be used
+		 */
+		private boolean indexFriendly(Field<?> f) {
+
+			if (!Translator.this.config.isIndexFriendlyPredicates() || !(f instanceof TableField<?, ?> tf)
+					|| tf.getTable() == null) {
+				return false;
+			}
+			var indexedProperties = Translator.this.config.getIndexedProperties();
+			if (indexedProperties.isEmpty()) {
+				return true;
+			}
+			var tableName = tf.getTable().getName();
+			return indexedProperties
+					.contains(this.tableNamesByAlias.getOrDefault(tableName, tableName) + "." + tf.getName());
 		}
-		else if (f instanceof QOM.Reverse e) {
-			return Functions.reverse(expression(e.$arg1()));
+
+		private Expression parameter(Param<?> p) {
+			if (p.$inline()) {
+				return literal(p, LikePattern.NONE, false);
+			}
+			else if (p.getParamName() != null) {
+				this.parameters.put(p.getParamName(), p.getValue());
+				return Cypher.parameter(p.getParamName(), p.getValue());
+			}
+			else {
+				return Cypher.anonParameter(p.getValue());
+			}
 		}
-		else if (f instanceof QOM.Right e) {
-			return Functions.right(expression(e.$arg1()), expression(e.$arg2()));
+
+		private Expression property(TableField<?, ?> tf) {
+			var pe = (tf.getTable() != null) ? qualifier(tf.getTable()) : this.unqualifiedColumnsTarget;
+			if (pe instanceof Node node) {
+				return node.property(tf.getName());
+			}
+			else if (pe instanceof Relationship rel) {
+				return rel.property(tf.getName());
+			}
+			else {
+				throw unsupported(tf);
+			}
 		}
-		else if (f instanceof QOM.Rtrim e) {
-			return org.neo4j.cypherdsl.core.Functions.rtrim(expression(e.$arg1()));
+
+		private Expression round(QOM.Round<?> e) {
+			if (e.$arg2() == null) {
+				return Functions.round(expression(e.$arg1()));
+			}
+			else {
+				return Functions.round(expression(e.$arg1()), expression(e.$arg2()));
+			}
 		}
-		else if (f instanceof QOM.Substring e) {
+
+		private Expression substring(QOM.Substring e) {
 			var length = expression(e.$arg3());
 			if (length != Cypher.literalNull()) {
-				return org.neo4j.cypherdsl.core.Functions.substring(expression(e.$arg1()), expression(e.$arg2()),
-						length);
+				return Functions.substring(expression(e.$arg1()), expression(e.$arg2()), length);
 			}
 			else {
-				return org.neo4j.cypherdsl.core.Functions.substring(expression(e.$arg1()), expression(e.$arg2()), null);
+				return Functions.substring(expression(e.$arg1()), expression(e.$arg2()), null);
 			}
 		}
-		else if (f instanceof QOM.Trim e) {
+
+		private Expression trim(QOM.Trim e) {
 			if (e.$arg2() != null) {
 				throw unsupported(e);
 			}
@@ -430,28 +1493,12 @@ public final class Translator {
 				return Functions.trim(expression(e.$arg1()));
 			}
 		}
-		else if (f instanceof QOM.Upper e) {
-			return Functions.toUpper(expression(e.$arg1()));
-		}
 
-		// https://neo4j.com/docs/cypher-manual/current/functions/scalar/
-		else if (f instanceof QOM.Coalesce<?> e) {
+		private Expression coalesce(QOM.Coalesce<?> e) {
 			return Functions.coalesce(e.$arg1().stream().map(this::expression).toArray(Expression[]::new));
 		}
-		else if (f instanceof QOM.Nvl<?> e) {
-			return Functions.coalesce(expression(e.$arg1()), expression(e.$arg2()));
-		}
 
-		// https://neo4j.com/docs/cypher-manual/current/syntax/expressions/
-		else if (f instanceof QOM.Nullif<?> e) {
-			return Cypher.caseExpression().when(expression(e.$arg1()).eq(expression(e.$arg2())))
-					.then(Cypher.literalNull()).elseDefault(expression(e.$arg1()));
-		}
-		else if (f instanceof QOM.Nvl2<?> e) {
-			return Cypher.caseExpression().when(expression(e.$arg1()).isNotNull()).then(expression(e.$arg2()))
-					.elseDefault(expression(e.$arg3()));
-		}
-		else if (f instanceof QOM.CaseSimple<?, ?> e) {
+		private Expression caseSimple(QOM.CaseSimple<?, ?> e) {
 			Case c = Cypher.caseExpression(expression(e.$value()));
 
 			for (var w : e.$when()) {
@@ -464,7 +1511,8 @@ public final class Translator {
 
 			return c;
 		}
-		else if (f instanceof QOM.CaseSearched<?> e) {
+
+		private Expression caseSearched(QOM.CaseSearched<?> e) {
 			Case c = Cypher.caseExpression();
 
 			for (var w : e.$when()) {
@@ -478,8 +1526,7 @@ public final class Translator {
 			return c;
 		}
 
-		// Others
-		else if (f instanceof QOM.Cast<?> e) {
+		private Expression cast(QOM.Cast<?> e) {
 			if (e.$dataType().isString()) {
 				return Functions.toString(expression(e.$field()));
 			}
@@ -493,219 +1540,634 @@ public final class Translator {
 				return Functions.toInteger(expression(e.$field()));
 			}
 			else {
-				throw unsupported(f);
+				throw unsupported(e);
 			}
 		}
-		else if (f instanceof org.jooq.True) {
-			return Cypher.literalTrue();
-		}
-		else if (f instanceof org.jooq.False) {
-			return Cypher.literalFalse();
-		}
-		else if (f instanceof QOM.Null || f == null || f instanceof org.jooq.Null) {
-			return Cypher.literalNull();
-		}
-		else {
-			throw unsupported(f);
-		}
-	}
-
-	private IllegalArgumentException unsupported(QueryPart p) {
-		return new IllegalArgumentException("Unsupported SQL expression: " + p);
-	}
 
-	private <T> Condition condition(org.jooq.Condition c) {
-		if (c instanceof QOM.And a) {
-			return condition(a.$arg1()).and(condition(a.$arg2()));
-		}
-		else if (c instanceof QOM.Or o) {
-			return condition(o.$arg1()).or(condition(o.$arg2()));
-		}
-		else if (c instanceof QOM.Xor o) {
-			return condition(o.$arg1()).xor(condition(o.$arg2()));
-		}
-		else if (c instanceof QOM.Not o) {
-			return condition(o.$arg1()).not();
-		}
-		else if (c instanceof QOM.Eq<?> e) {
-			return expression(e.$arg1()).eq(expression(e.$arg2()));
-		}
-		else if (c instanceof QOM.Gt<?> e) {
-			return expression(e.$arg1()).gt(expression(e.$arg2()));
-		}
-		else if (c instanceof QOM.Ge<?> e) {
-			return expression(e.$arg1()).gte(expression(e.$arg2()));
-		}
-		else if (c instanceof QOM.Lt<?> e) {
-			return expression(e.$arg1()).lt(expression(e.$arg2()));
-		}
-		else if (c instanceof QOM.Le<?> e) {
-			return expression(e.$arg1()).lte(expression(e.$arg2()));
+		private Expression function(QOM.Function<?> f) {
+			var handler = Translator.this.functions.get(HandlerRegistry.normalizeFunctionName(f.getName()));
+			if (handler == null) {
+				throw unsupported(f);
+			}
+			return handler.apply(this, f.$args());
+		}
+
+		@Override
+		public Condition condition(org.jooq.Condition c) {
+			++this.nodeCount;
+			return Translator.this.conditions.apply(this, c);
+		}
+
+		/**
+		 * Translates a comparison. Index-friendly comparisons of a literal with a
+		 * property are turned around, so that the property is on the left-hand side.
+		 * @param lhs the left-hand side of the comparison
+		 * @param rhs the right-hand side of the comparison
+		 * @param comparison the comparison
+		 * @param flipped the comparison to use when both sides are swapped
+		 * @return the translated comparison
+		 */
+		private Condition comparison(Field<?> lhs, Field<?> rhs,
+				BiFunction<? super Expression, ? super Expression, ? extends Condition> comparison,
+				BiFunction<? super Expression, ? super Expression, ? extends Condition> flipped) {
+
+			if (!(lhs instanceof TableField<?, ?>) && indexFriendly(rhs)) {
+				return flipped.apply(expression(rhs), expression(lhs));
+			}
+			return comparison.apply(expression(lhs), expression(rhs));
 		}
-		else if (c instanceof QOM.Between<?> e) {
+
+		private <T> Condition between(QOM.Between<T> e) {
 			if (e.$symmetric()) {
-				@SuppressWarnings("unchecked")
-				QOM.Between<T> t = (QOM.Between<T>) e;
-				return condition(t.$symmetric(false))
-						.or(condition(t.$symmetric(false).$arg2(t.$arg3()).$arg3(t.$arg2())));
+				return condition(e.$symmetric(false))
+						.or(condition(e.$symmetric(false).$arg2(e.$arg3()).$arg3(e.$arg2())));
+			}
+			else if (indexFriendly(e.$arg1())) {
+				var value = expression(e.$arg1());
+				return value.gte(expression(e.$arg2())).and(value.lte(expression(e.$arg3())));
 			}
 			else {
 				return expression(e.$arg2()).lte(expression(e.$arg1()))
 						.and(expression(e.$arg1()).lte(expression(e.$arg3())));
 			}
 		}
-		else if (c instanceof QOM.Ne<?> e) {
-			return expression(e.$arg1()).ne(expression(e.$arg2()));
-		}
-		else if (c instanceof QOM.IsNull e) {
-			return expression(e.$arg1()).isNull();
-		}
-		else if (c instanceof QOM.IsNotNull e) {
-			return expression(e.$arg1()).isNotNull();
-		}
-		else if (c instanceof QOM.RowEq<?> e) {
+
+		private Condition rowEquality(Row r1, Row r2,
+				BiFunction<? super Expression, ? super Expression, ? extends Condition> comp) {
 			Condition result = null;
 
-			for (int i = 0; i < e.$arg1().size(); i++) {
-				Condition r = expression(e.$arg1().field(i)).eq(expression(e.$arg2().field(i)));
+			for (int i = 0; i < r1.size(); i++) {
+				Condition r = comp.apply(expression(r1.field(i)), expression(r2.field(i)));
 				result = (result != null) ? result.and(r) : r;
 			}
 
 			return result;
 		}
-		else if (c instanceof QOM.RowNe<?> e) {
-			Condition result = null;
 
-			for (int i = 0; i < e.$arg1().size(); i++) {
-				Condition r = expression(e.$arg1().field(i)).ne(expression(e.$arg2().field(i)));
-				result = (result != null) ? result.and(r) : r;
+		private Condition like(QOM.Like like) {
+			var lhs = expression(like.$arg1());
+			if (like.$arg2() instanceof Param<?> p && p.$inline()) {
+				var indexFriendly = like.$escape() == null && indexFriendly(like.$arg1());
+				var pattern = indexFriendly ? LikePattern.of(p.getValue()) : LikePattern.REGEX;
+				return pattern.condition(lhs, literal(p, pattern, indexFriendly));
+			}
+			return lhs.matches(expression(like.$arg2()));
+		}
+
+		/**
+		 * Translates an {@code IN} list. A list consisting of a single named parameter is
+		 * translated into a list parameter, a list of literals into a single parameter if
+		 * literals are extracted, so that the Cypher statement does not depend on the
+		 * length of the list. A list of bind parameters is translated into a new
+		 * parameter holding their values, the bind parameters themselves might still be
+		 * referred to elsewhere in the statement.
+		 * @param list the {@code IN} predicate
+		 * @param lhs the value to look up
+		 * @param elements the elements of the list
+		 * @return the translated condition
+		 */
+		private Condition inList(org.jooq.Condition list, Field<?> lhs, List<? extends Field<?>> elements) {
+
+			Integer index = (this.literalIndexes != null) ? this.literalIndexes.get(list) : null;
+			if (index != null) {
+				var name = isBindParameterList(elements) ? freshParameterName("list") : "lit" + index;
+				var binding = new Binding(name, index, LikePattern.NONE, false);
+				this.bindings.add(binding);
+				return expression(lhs).in(Cypher.parameter(binding.name()));
+			}
+			if (isBindParameterList(elements)) {
+				var name = freshParameterName("list");
+				this.parameters.put(name, elements.stream().map((f) -> ((Param<?>) f).getValue()).toList());
+				return expression(lhs).in(Cypher.parameter(name));
+			}
+			if (elements.size() == 1 && elements.get(0) instanceof Param<?> p && !p.$inline()
+					&& p.getParamName() != null) {
+				return expression(lhs).in(expression(p));
+			}
+			return expression(lhs).in(Cypher.listOf(elements.stream().map(this::expression).toList()));
+		}
+
+		/**
+		 * Translates an {@code IN} predicate with a subquery into an existential
+		 * subquery, correlating the selected field of the subquery with the value to look
+		 * up.
+		 * @param in the {@code IN} predicate
+		 * @return the translated condition
+		 */
+		private Condition inSubquery(QOM.In<?> in) {
+
+			var subquery = in.$arg2();
+			if (subquery.$select().size() != 1 || !(unalias(subquery.$select().get(0)) instanceof Field<?> selected)
+					|| subquery.$from().isEmpty() || !subquery.$groupBy().isEmpty() || subquery.$having() != null
+					|| subquery.$limit() != null || subquery.$offset() != null) {
+				throw unsupported(in);
 			}
 
-			return result;
-		}
-		else if (c instanceof QOM.RowGt<?> e) {
-			return rowCondition(e.$arg1(), e.$arg2(), Expression::gt, Expression::gt);
-		}
-		else if (c instanceof QOM.RowGe<?> e) {
-			return rowCondition(e.$arg1(), e.$arg2(), Expression::gt, Expression::gte);
-		}
-		else if (c instanceof QOM.RowLt<?> e) {
-			return rowCondition(e.$arg1(), e.$arg2(), Expression::lt, Expression::lt);
+			var outer = expression(in.$arg1());
+			var previousScope = this.subqueryScope;
+			var previousTarget = this.unqualifiedColumnsTarget;
+			this.subqueryScope = (previousScope != null) ? new HashMap<>(previousScope) : new HashMap<>();
+			try {
+				var nodes = new ArrayList<PatternElement>();
+				for (var table : subquery.$from()) {
+					var node = subqueryNode(table);
+					nodes.add(node);
+					this.subqueryScope.put((table instanceof TableAlias<?> ta) ? ta.$alias().last() : table.getName(),
+							node);
+				}
+				this.unqualifiedColumnsTarget = (nodes.size() == 1) ? (Node) nodes.get(0) : null;
+
+				var correlation = expression(selected).eq(outer);
+				var condition = (subquery.$where() != null) ? condition(subquery.$where()).and(correlation)
+						: correlation;
+				return Cypher.match(nodes).where(condition).asCondition();
+			}
+			finally {
+				this.subqueryScope = previousScope;
+				this.unqualifiedColumnsTarget = previousTarget;
+			}
 		}
-		else if (c instanceof QOM.RowLe<?> e) {
-			return rowCondition(e.$arg1(), e.$arg2(), Expression::lt, Expression::lte);
+
+		/**
+		 * Creates the node for a table of a subquery. The node gets a fresh symbolic
+		 * name, so that it never refers to a node of the enclosing query.
+		 * @param table a table of the subquery
+		 * @return a new node
+		 */
+		private Node subqueryNode(Table<?> table) {
+
+			Table<?> t = table;
+			String name = table.getName();
+			if (table instanceof TableAlias<?> ta) {
+				t = ta.$aliased();
+				name = ta.$alias().last();
+			}
+			if (t instanceof QOM.Join<?> || t instanceof TableAlias<?>) {
+				throw unsupported(table);
+			}
+			String symbolicName;
+			do {
+				symbolicName = name + "_" + ++this.subqueryNodeCount;
+			}
+			while (this.tableNamesByAlias.containsKey(symbolicName));
+			return node(t, symbolicName);
+		}
+
+		/**
+		 * Translates an inline literal, either as a literal or as a parameter when
+		 * literals are extracted.
+		 * @param p the literal
+		 * @param pattern how the literal is used in a {@code LIKE} predicate
+		 * @param patternDependsOnValue whether {@code pattern} has been derived from the
+		 * value of the literal
+		 * @return a literal or a parameter
+		 */
+		private Expression literal(Param<?> p, LikePattern pattern, boolean patternDependsOnValue) {
+
+			Integer index = (this.literalIndexes != null) ? this.literalIndexes.get(p) : null;
+			if (index == null) {
+				this.allLiteralsExtracted &= this.literalIndexes == null;
+				return Cypher.literalOf(pattern.value(p.getValue()));
+			}
+
+			var binding = new Binding("lit" + index, index, pattern, patternDependsOnValue);
+			this.bindings.add(binding);
+			return Cypher.parameter(binding.name());
+		}
+
+		/**
+		 * Translates a row value comparison into a series of comparisons of the single
+		 * columns.
+		 * @param r1 the left-hand side row
+		 * @param r2 the right-hand side row
+		 * @param comp the comparison for all but the last column
+		 * @param last the comparison for the last column
+		 * @param bound the inclusive comparison bounding the first column if keyset
+		 * pagination is enabled
+		 * @return the translated comparison
+		 */
+		private Condition rowCondition(Row r1, Row r2,
+				BiFunction<? super Expression, ? super Expression, ? extends Condition> comp,
+				BiFunction<? super Expression, ? super Expression, ? extends Condition> last,
+				BiFunction<? super Expression, ? super Expression, ? extends Condition> bound) {
+			Condition result = last.apply(expression(r1.field(r1.size() - 1)), expression(r2.field(r1.size() - 1)));
+
+			Expression e1 = null;
+			Expression e2 = null;
+			for (int i = r1.size() - 2; i >= 0; i--) {
+				e1 = expression(r1.field(i));
+				e2 = expression(r2.field(i));
+				result = comp.apply(e1, e2).or(e1.eq(e2).and(result));
+			}
+
+			if (e1 != null && Translator.this.config.isKeysetPagination()) {
+				result = bound.apply(e1, e2).and(result);
+			}
+			return result;
 		}
-		else if (c instanceof QOM.RowIsNull e) {
-			return e.$arg1().$fields().stream().map(f -> expression(f).isNull()).reduce(Condition::and).get();
+
+		/**
+		 * Resolves the table a column is qualified with. Qualifiers usually are aliases
+		 * of tables resolved elsewhere, possibly later on, so unknown qualifiers are not
+		 * added to the labels of the statement.
+		 * @param t the qualifier
+		 * @return the node or relationship the qualifier refers to
+		 */
+		private PatternElement qualifier(Table<?> t) {
+
+			var result = (this.subqueryScope != null) ? this.subqueryScope.get(t.getName()) : null;
+			if (result != null) {
+				return result;
+			}
+			result = this.resolvedTables.get(t);
+			return (result != null) ? result : Cypher.node(labelOrType(this.catalog, t)).named(t.getName());
 		}
-		else if (c instanceof QOM.RowIsNotNull e) {
-			return e.$arg1().$fields().stream().map(f -> expression(f).isNotNull()).reduce(Condition::and).get();
+
+		private PatternElement resolveTableOrJoin(Table<?> t) {
+			var result = this.resolvedTables.get(t);
+			if (result == null) {
+				result = resolveTableOrJoin0(t);
+				this.resolvedTables.put(t, result);
+			}
+			return result;
 		}
-		else if (c instanceof QOM.Like like) {
-			Expression rhs;
-			if (like.$arg2() instanceof Param p && p.$inline() && p.getValue() instanceof String s) {
-				rhs = Cypher.literalOf(s.replace("%", ".*"));
+
+		private PatternElement resolveTableOrJoin0(Table<?> t) {
+			++this.nodeCount;
+			if (t instanceof QOM.Join<?> join && join.$on() instanceof QOM.Eq<?> eq) {
+
+				String relType;
+				String relSymbolicName = null;
+
+				PatternElement lhs;
+				PatternElement rhs;
+
+				if (join.$table1() instanceof QOM.Join<?> lhsJoin) {
+					lhs = resolveTableOrJoin(lhsJoin.$table1());
+					relType = labelOrType(this.catalog, lhsJoin.$table2());
+					if (lhsJoin.$table2() instanceof TableAlias<?> tableAlias) {
+						relSymbolicName = tableAlias.getName();
+					}
+				}
+				else {
+					lhs = resolveTableOrJoin(join.$table1());
+					relType = relationshipTypeName(this.catalog, join.$table1(), eq.$arg2());
+				}
+
+				rhs = resolveTableOrJoin(join.$table2());
+
+				if (lhs instanceof ExposesRelationships<?> from && rhs instanceof Node to) {
+
+					var direction = Relationship.Direction.LTR;
+					if (join.$table2() instanceof TableAlias<?> ta
+							&& ta.$alias().last().equals(eq.$arg2().getQualifiedName().first())) {
+						direction = Relationship.Direction.RTL;
+					}
+
+					this.relationshipTypes.add(relType);
+					var relationship = from.relationshipWith(to, direction, relType);
+					if (relSymbolicName != null) {
+						if (relationship instanceof Relationship r) {
+							relationship = r.named(relSymbolicName);
+						}
+						else if (relationship instanceof RelationshipChain r) {
+							relationship = r.named(relSymbolicName);
+						}
+					}
+					return relationship;
+				}
+				else {
+					throw unsupported(join);
+				}
+			}
+
+			if (t instanceof TableAlias<?> ta) {
+				this.tableNamesByAlias.putIfAbsent(ta.$alias().last(), ta.$aliased().getName());
+				if (resolveTableOrJoin(ta.$aliased()) instanceof Node) {
+					return node(ta.$aliased(), ta.$alias().last());
+				}
+				else {
+					throw unsupported(ta);
+				}
 			}
 			else {
-				rhs = expression(like.$arg2());
+				return node(t, t.getName());
 			}
-			return expression(like.$arg1()).matches(rhs);
 		}
-		else {
-			throw unsupported(c);
-		}
-	}
 
-	private Condition rowCondition(Row r1, Row r2,
-			BiFunction<? super Expression, ? super Expression, ? extends Condition> comp,
-			BiFunction<? super Expression, ? super Expression, ? extends Condition> last) {
-		Condition result = last.apply(expression(r1.field(r1.size() - 1)), expression(r2.field(r1.size() - 1)));
+		private Node node(Table<?> t, String symbolicName) {
 
-		for (int i = r1.size() - 2; i >= 0; i--) {
-			Expression e1 = expression(r1.field(i));
-			Expression e2 = expression(r2.field(i));
-			result = comp.apply(e1, e2).or(e1.eq(e2).and(result));
+			var label = labelOrType(this.catalog, t);
+			this.labels.add(label);
+			return Cypher.node(label).named(symbolicName);
 		}
 
-		return result;
 	}
 
-	private PatternElement resolveTableOrJoin(Table<?> t) {
-		if (t instanceof QOM.Join<?> join && join.$on() instanceof QOM.Eq<?> eq) {
+	/**
+	 * Collects all inline literals in order of rendering and replaces them with a marker.
+	 * Bind parameters are replaced with their names, so that statements only differing in
+	 * literals share a shape, while different parameter names lead to different shapes.
+	 * {@code IN} lists consisting only of literals or only of bind parameters are
+	 * collected as a whole and replaced with a single marker, so that lists of any length
+	 * share a shape.
+	 */
+	private static final class LiteralCollector implements VisitListener {
 
-			String relType;
-			String relSymbolicName = null;
+		private final List<QueryPart> literals;
 
-			PatternElement lhs;
-			PatternElement rhs;
+		LiteralCollector(List<QueryPart> literals) {
+			this.literals = literals;
+		}
 
-			if (join.$table1() instanceof QOM.Join<?> lhsJoin) {
-				lhs = resolveTableOrJoin(lhsJoin.$table1());
-				relType = labelOrType(lhsJoin.$table2());
-				if (lhsJoin.$table2() instanceof TableAlias<?> tableAlias) {
-					relSymbolicName = tableAlias.getName();
-				}
+		@Override
+		public void visitStart(VisitContext ctx) {
+
+			var part = ctx.queryPart();
+			if (part instanceof QOM.InList<?> in && isCollapsible(in.$arg2())) {
+				this.literals.add(in);
+				ctx.queryPart(DSL.condition("{0} in ({1})", in.$arg1(), listMarker(in.$arg2())));
 			}
-			else {
-				lhs = resolveTableOrJoin(join.$table1());
-				relType = relationshipTypeName(eq.$arg2());
+			else if (part instanceof QOM.NotInList<?> in && isCollapsible(in.$arg2())) {
+				this.literals.add(in);
+				ctx.queryPart(DSL.condition("{0} not in ({1})", in.$arg1(), listMarker(in.$arg2())));
+			}
+			else if (part instanceof Param<?> p && p.$inline()) {
+				this.literals.add(p);
+				ctx.queryPart(DSL.field(DSL.raw("?L")));
+			}
+			else if (part instanceof Param<?> p) {
+				ctx.queryPart(DSL.field(DSL.raw((p.getParamName() != null) ? ":" + p.getParamName() : "?")));
 			}
+		}
 
-			rhs = resolveTableOrJoin(join.$table2());
+		private static boolean isCollapsible(List<? extends Field<?>> elements) {
+			return isLiteralList(elements) || isBindParameterList(elements);
+		}
 
-			if (lhs instanceof ExposesRelationships<?> from && rhs instanceof Node to) {
+		private static QueryPart listMarker(List<? extends Field<?>> elements) {
+			return DSL.raw(isLiteralList(elements) ? "?L" : ":" + ((Param<?>) elements.get(0)).getParamName());
+		}
 
-				var direction = Relationship.Direction.LTR;
-				if (join.$table2() instanceof TableAlias<?> ta
-						&& ta.$alias().last().equals(eq.$arg2().getQualifiedName().first())) {
-					direction = Relationship.Direction.RTL;
-				}
+	}
 
-				var relationship = from.relationshipWith(to, direction, relType);
-				if (relSymbolicName != null) {
-					if (relationship instanceof Relationship r) {
-						relationship = r.named(relSymbolicName);
-					}
-					else if (relationship instanceof RelationshipChain r) {
-						relationship = r.named(relSymbolicName);
-					}
+	/**
+	 * A translated statement with all literals replaced by parameters.
+	 * @param translation the translation with the named parameters that have been present
+	 * in the SQL statement
+	 * @param bindings where to take the values of the extracted literals from
+	 * @param cacheable whether the template is valid for all statements of the same shape
+	 */
+	private record Template(Translation translation, List<Binding> bindings, boolean cacheable) {
+
+		/**
+		 * Binds the literals of a statement to this template.
+		 * @param literals the literals of the statement
+		 * @return the translation of the statement or {@literal null} if the template
+		 * does not fit the {@code LIKE} patterns of the statement
+		 */
+		Translation bind(List<QueryPart> literals) {
+
+			var boundParameters = new LinkedHashMap<>(this.translation.parameters());
+			for (var binding : this.bindings) {
+				var value = literalValue(literals.get(binding.index()));
+				if (binding.patternDependsOnValue() && LikePattern.of(value) != binding.pattern()) {
+					return null;
 				}
-				return relationship;
-			}
-			else {
-				throw unsupported(join);
+				boundParameters.put(binding.name(), binding.pattern().value(value));
 			}
+			return this.translation.withParameters(boundParameters);
+		}
+
+	}
+
+	/**
+	 * The state derived from a mapping catalog.
+	 * @param catalog the mappings
+	 * @param parser the parser, aware of all mapped tables
+	 * @param cache the cache of translations, {@literal null} if caching is disabled or
+	 * literals are extracted
+	 * @param shapeContext the context to render statement shapes, {@literal null} if
+	 * literals are not extracted
+	 * @param templates the cache of templates, {@literal null} if caching is disabled or
+	 * literals are not extracted
+	 */
+	private record Mappings(MappingCatalog catalog, Parser parser, TranslationCache<Translation> cache,
+			DSLContext shapeContext, TranslationCache<Template> templates) {
+	}
+
+	/**
+	 * Binds a parameter to the literal at a given position.
+	 * @param name the name of the parameter
+	 * @param index the position of the literal in the shape of the statement
+	 * @param pattern how the literal is used in a {@code LIKE} predicate
+	 * @param patternDependsOnValue whether {@code pattern} has been derived from the
+	 * value of the literal
+	 */
+	private record Binding(String name, int index, LikePattern pattern, boolean patternDependsOnValue) {
+	}
+
+	/**
+	 * The items of a {@code WITH} stage together with the names under which the projected
+	 * jOOQ fields can be referred to after the stage.
+	 */
+	private static final class Projection {
+
+		private final Map<Field<?>, String> names = new HashMap<>();
+
+		private final Set<String> usedNames = new HashSet<>();
+
+		private final List<IdentifiableElement> items = new ArrayList<>();
+
+		boolean contains(Field<?> field) {
+			return this.names.containsKey(field);
 		}
 
-		if (t instanceof TableAlias<?> ta) {
-			if (resolveTableOrJoin(ta.$aliased()) instanceof Node) {
-				return Cypher.node(labelOrType(ta.$aliased())).named(ta.$alias().last());
+		/**
+		 * Adds a field to the projection under a unique name derived from the given one.
+		 * @param field the field to project
+		 * @param name the preferred name
+		 * @param translator translates the field into an expression
+		 * @return the name under which the field is projected
+		 */
+		String add(Field<?> field, String name, Function<Field<?>, Expression> translator) {
+
+			var uniqueName = name;
+			for (int i = 1; !this.usedNames.add(uniqueName); ++i) {
+				uniqueName = name + "_" + i;
 			}
-			else {
-				throw unsupported(ta);
+			this.items.add(translator.apply(field).as(uniqueName));
+			this.names.putIfAbsent(field, uniqueName);
+			return uniqueName;
+		}
+
+		/**
+		 * Makes a projected field available under its alias, so that it can be referred
+		 * to in {@code HAVING} and {@code ORDER BY}.
+		 * @param alias the alias of the field in the select list
+		 * @param name the name under which the field is projected
+		 */
+		void alias(Name alias, String name) {
+			this.names.putIfAbsent(DSL.field(alias), name);
+		}
+
+		/**
+		 * Looks up the name of a projected field. Aggregates that have not been projected
+		 * yet are added to the projection.
+		 * @param field the field to look up
+		 * @param translator translates the field into an expression
+		 * @return the name of the field or {@literal null} if it is not projected
+		 */
+		String get(Field<?> field, Function<Field<?>, Expression> translator) {
+
+			var name = this.names.get(field);
+			if (name == null && field instanceof AggregateFunction<?>) {
+				name = add(field, field.getName(), translator);
 			}
+			return name;
 		}
-		else {
-			return Cypher.node(labelOrType(t)).named(t.getName());
+
+	}
+
+	/**
+	 * Collects the metrics of a single translation, only used if a listener is
+	 * configured.
+	 */
+	private static final class Measurement {
+
+		private StatementType statementType;
+
+		private long parseNanos;
+
+		private long buildNanos;
+
+		private long renderNanos;
+
+		private int nodeCount;
+
+		private boolean cached;
+
+		private long mark = System.nanoTime();
+
+		/**
+		 * Restarts the stopwatch.
+		 * @return the nanoseconds elapsed since the last lap
+		 */
+		long lap() {
+			long now = System.nanoTime();
+			long result = now - this.mark;
+			this.mark = now;
+			return result;
+		}
+
+		void parsed(Query query) {
+			this.statementType = StatementType.of(query);
+			this.parseNanos = lap();
+		}
+
+		void built(int numberOfNodes) {
+			this.buildNanos = lap();
+			this.nodeCount = numberOfNodes;
+		}
+
+		TranslationMetrics toMetrics() {
+			return new TranslationMetrics(this.statementType, this.parseNanos, this.buildNanos, this.renderNanos,
+					this.nodeCount, this.cached);
 		}
+
 	}
 
-	private String labelOrType(Table<?> tableOrAlias) {
+	/**
+	 * The ways in which a literal can be used as pattern of a {@code LIKE} predicate.
+	 */
+	private enum LikePattern {
+
+		/**
+		 * The literal is not used as a pattern.
+		 */
+		NONE,
+
+		/**
+		 * The pattern is turned into a regular expression.
+		 */
+		REGEX,
+
+		/**
+		 * The pattern does not contain any wildcard.
+		 */
+		EQUALS,
+
+		/**
+		 * The pattern only has a trailing {@code %}.
+		 */
+		STARTS_WITH,
+
+		/**
+		 * The pattern only has a leading {@code %}.
+		 */
+		ENDS_WITH,
+
+		/**
+		 * The pattern has a leading and a trailing {@code %} and no other wildcards.
+		 */
+		CONTAINS;
+
+		static LikePattern of(Object value) {
+
+			if (!(value instanceof String s) || s.indexOf('_') >= 0) {
+				return REGEX;
+			}
+			if (s.indexOf('%') < 0) {
+				return EQUALS;
+			}
+			boolean leading = s.startsWith("%");
+			boolean trailing = s.length() > 1 && s.endsWith("%");
+			var infix = s.substring(leading ? 1 : 0, s.length() - (trailing ? 1 : 0));
+			if (infix.isEmpty() || infix.indexOf('%') >= 0) {
+				return REGEX;
+			}
+			return leading ? (trailing ? CONTAINS : ENDS_WITH) : STARTS_WITH;
+		}
+
+		Object value(Object pattern) {
 
-		var t = (tableOrAlias instanceof TableAlias<?> ta) ? ta.$aliased() : tableOrAlias;
-		var comment = t.getComment();
-		if (!comment.isBlank()) {
-			var config = Arrays.stream(comment.split(",")).map((s) -> s.split("="))
-					.collect(Collectors.toMap((a) -> a[0], (a) -> a[1]));
-			return config.getOrDefault("label", t.getName());
+			if (!(pattern instanceof String s)) {
+				return pattern;
+			}
+			return switch (this) {
+				case NONE, EQUALS -> s;
+				case REGEX -> s.replace("%", ".*");
+				case STARTS_WITH -> s.substring(0, s.length() - 1);
+				case ENDS_WITH -> s.substring(1);
+				case CONTAINS -> s.substring(1, s.length() - 1);
+			};
+		}
+
+		Condition condition(Expression lhs, Expression rhs) {
+
+			return switch (this) {
+				case NONE, REGEX -> lhs.matches(rhs);
+				case EQUALS -> lhs.eq(rhs);
+				case STARTS_WITH -> lhs.startsWith(rhs);
+				case ENDS_WITH -> lhs.endsWith(rhs);
+				case CONTAINS -> lhs.contains(rhs);
+			};
 		}
 
-		return t.getName();
 	}
 
-	private String relationshipTypeName(Field<?> lhsJoinColumn) {
+	/**
+	 * Holds the extensions discovered via {@link ServiceLoader}, looked up once when the
+	 * first translator is created.
+	 */
+	private static final class Extensions {
+
+		static final List<TranslatorExtension> DISCOVERED = ServiceLoader.load(TranslatorExtension.class).stream()
+				.map(ServiceLoader.Provider::get).toList();
+
+		private Extensions() {
+		}
 
-		return Objects.requireNonNull(lhsJoinColumn.getQualifiedName().last()).toUpperCase(Locale.ROOT);
 	}
 
 }
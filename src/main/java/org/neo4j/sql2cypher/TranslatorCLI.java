@@ -15,8 +15,20 @@
  */
 package org.neo4j.sql2cypher;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.stream.StreamSupport;
 
 import org.jooq.SQLDialect;
 import org.jooq.conf.ParseNameCase;
@@ -24,8 +36,11 @@ import picocli.AutoComplete.GenerateCompletion;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.HelpCommand;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
 import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
 
 /**
  * Main entry to the {@link Translator translator cli}.
@@ -36,7 +51,10 @@ import picocli.CommandLine.Parameters;
 @Command(name = "sql2cypher", mixinStandardHelpOptions = true,
 		description = "Translates SQL statements to Cypher queries.", sortOptions = false,
 		versionProvider = ManifestVersionProvider.class, subcommands = { GenerateCompletion.class, HelpCommand.class })
-public final class TranslatorCLI implements Runnable {
+public final class TranslatorCLI implements Callable<Integer> {
+
+	@Spec
+	private CommandSpec spec;
 
 	@Option(names = "--parse-name-case",
 			description = "How to parse names; valid values are: ${COMPLETION-CANDIDATES} and the default is ${DEFAULT-VALUE}")
@@ -46,6 +64,14 @@ public final class TranslatorCLI implements Runnable {
 			description = "A table name that should be mapped to a specific label, repeat for multiple mappings")
 	private Map<String, String> tableToLabelMappings = new HashMap<>();
 
+	@Option(names = "--mapping-catalog",
+			description = "A JSON file with table to label and join column to relationship type mappings, --table-to-label-mapping takes precedence")
+	private Path mappingCatalog;
+
+	@Option(names = "--schema-export",
+			description = "A JSON export of db.schema.visualization() or apoc.meta.schema() to derive mappings from, other mappings take precedence")
+	private Path schemaExport;
+
 	@Option(names = "--sql-dialect",
 			description = "The SQL dialect to use for parsing; valid values are: ${COMPLETION-CANDIDATES} and the default is ${DEFAULT-VALUE}")
 	private SQLDialect sqlDialect = TranslatorConfig.defaultConfig().getSqlDialect();
@@ -53,7 +79,16 @@ public final class TranslatorCLI implements Runnable {
 	@Option(names = "--disable-pretty-printing", description = "Disables pretty printing")
 	private boolean disablePrettyPrinting = false;
 
-	@Parameters(index = "0", description = "Any valid SQL statement that should be translated to Cypher")
+	@Option(names = "--input",
+			description = "Reads SQL statements separated by ; or new lines from the given file, use - for standard input")
+	private String input;
+
+	@Option(names = "--parallelism",
+			description = "The number of threads used to translate statements read via --input, defaults to ${DEFAULT-VALUE}")
+	private int parallelism = 1;
+
+	@Parameters(index = "0", arity = "0..1",
+			description = "Any valid SQL statement that should be translated to Cypher")
 	private String sql;
 
 	public static void main(String... args) {
@@ -68,12 +103,76 @@ public final class TranslatorCLI implements Runnable {
 	}
 
 	@Override
-	public void run() {
+	public Integer call() throws IOException {
+
+		if ((this.sql == null) == (this.input == null)) {
+			throw new ParameterException(this.spec.commandLine(), "Either a SQL statement or --input is required");
+		}
+
+		var tableToLabelMappings = new HashMap<String, String>();
+		var joinColumnsToTypeMappings = new HashMap<String, String>();
+		var schema = (this.schemaExport != null) ? SchemaImporter.importSchema(this.schemaExport)
+				: MappingCatalog.empty();
+		var catalog = (this.mappingCatalog != null) ? MappingCatalog.read(this.mappingCatalog) : MappingCatalog.empty();
+		for (var mappings : List.of(schema, catalog)) {
+			tableToLabelMappings.putAll(mappings.getTableToLabelMappings());
+			joinColumnsToTypeMappings.putAll(mappings.getJoinColumnsToTypeMappings());
+		}
+		tableToLabelMappings.putAll(this.tableToLabelMappings);
 
 		var cfg = TranslatorConfig.builder().withParseNameCase(this.parseNameCase)
-				.withTableToLabelMappings(this.tableToLabelMappings).withSqlDialect(this.sqlDialect)
-				.withPrettyPrint(!this.disablePrettyPrinting).build();
-		System.out.println(Translator.with(cfg).convert(this.sql));
+				.withTableToLabelMappings(tableToLabelMappings).withJoinColumnsToTypeMappings(joinColumnsToTypeMappings)
+				.withSqlDialect(this.sqlDialect).withPrettyPrint(!this.disablePrettyPrinting).build();
+		var translator = Translator.with(cfg);
+		if (this.sql != null) {
+			System.out.println(translator.convert(this.sql));
+			return CommandLine.ExitCode.OK;
+		}
+
+		try (var reader = openInput()) {
+			return translate(translator, reader);
+		}
+	}
+
+	/**
+	 * Translates all statements read from {@code reader} one by one, printing each
+	 * translation as soon as it is available. Statements that cannot be translated are
+	 * reported as Cypher comments in place of their translation.
+	 * @param translator the translator to use
+	 * @param reader the source of SQL statements
+	 * @return the exit code
+	 */
+	private int translate(Translator translator, Reader reader) {
+
+		var statements = StreamSupport.stream(Spliterators.spliteratorUnknownSize(new StatementReader(reader),
+				Spliterator.ORDERED | Spliterator.NONNULL), false);
+		var exitCode = CommandLine.ExitCode.OK;
+		try (var results = translator.convertAll(statements, this.parallelism)) {
+			for (var result : (Iterable<BatchResult>) results::iterator) {
+				if (result.isSuccess()) {
+					System.out.append(result.translation().cypher()).println(';');
+				}
+				else {
+					System.out.printf("// Statement %d (%s) could not be translated: %s%n", result.index() + 1,
+							oneLine(result.sql()), oneLine(result.failure().getMessage()));
+					exitCode = CommandLine.ExitCode.SOFTWARE;
+				}
+				System.out.flush();
+			}
+		}
+		return exitCode;
+	}
+
+	private static String oneLine(String value) {
+		return String.valueOf(value).replaceAll("\\s+", " ");
+	}
+
+	private Reader openInput() throws IOException {
+
+		if ("-".equals(this.input)) {
+			return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+		}
+		return Files.newBufferedReader(Path.of(this.input), StandardCharsets.UTF_8);
 	}
 
 }
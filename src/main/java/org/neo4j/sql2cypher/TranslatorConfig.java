@@ -15,8 +15,11 @@
  */
 package org.neo4j.sql2cypher;
 
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import org.jooq.SQLDialect;
 import org.jooq.conf.ParseNameCase;
@@ -66,6 +69,26 @@ public final class TranslatorConfig {
 
 	private final String parseNamedParamPrefix;
 
+	private final int cacheSize;
+
+	private final CacheEvictionPolicy cacheEvictionPolicy;
+
+	private final boolean extractLiterals;
+
+	private final TranslationListener translationListener;
+
+	private final List<TranslatorExtension> extensions;
+
+	private final boolean indexFriendlyPredicates;
+
+	private final Set<String> indexedProperties;
+
+	private final boolean keysetPagination;
+
+	private final boolean parameterizedInserts;
+
+	private final Map<StatementType, Integer> batchSizes;
+
 	private TranslatorConfig(Builder builder) {
 
 		this.parseNameCase = builder.parseNameCase;
@@ -76,6 +99,16 @@ public final class TranslatorConfig {
 		this.sqlDialect = builder.sqlDialect;
 		this.prettyPrint = builder.prettyPrint;
 		this.parseNamedParamPrefix = builder.parseNamedParamPrefix;
+		this.cacheSize = builder.cacheSize;
+		this.cacheEvictionPolicy = builder.cacheEvictionPolicy;
+		this.extractLiterals = builder.extractLiterals;
+		this.translationListener = builder.translationListener;
+		this.extensions = builder.extensions;
+		this.indexFriendlyPredicates = builder.indexFriendlyPredicates;
+		this.indexedProperties = builder.indexedProperties;
+		this.keysetPagination = builder.keysetPagination;
+		this.parameterizedInserts = builder.parameterizedInserts;
+		this.batchSizes = builder.batchSizes;
 	}
 
 	/**
@@ -118,6 +151,64 @@ public final class TranslatorConfig {
 		return this.parseNamedParamPrefix;
 	}
 
+	public int getCacheSize() {
+		return this.cacheSize;
+	}
+
+	public CacheEvictionPolicy getCacheEvictionPolicy() {
+		return this.cacheEvictionPolicy;
+	}
+
+	public boolean isExtractLiterals() {
+		return this.extractLiterals;
+	}
+
+	public TranslationListener getTranslationListener() {
+		return this.translationListener;
+	}
+
+	public List<TranslatorExtension> getExtensions() {
+		return this.extensions;
+	}
+
+	public boolean isIndexFriendlyPredicates() {
+		return this.indexFriendlyPredicates;
+	}
+
+	public Set<String> getIndexedProperties() {
+		return this.indexedProperties;
+	}
+
+	public boolean isKeysetPagination() {
+		return this.keysetPagination;
+	}
+
+	public boolean isParameterizedInserts() {
+		return this.parameterizedInserts;
+	}
+
+	public Map<StatementType, Integer> getBatchSizes() {
+		return this.batchSizes;
+	}
+
+	/**
+	 * Eviction policies available for the translation cache.
+	 */
+	public enum CacheEvictionPolicy {
+
+		/**
+		 * Evicts the least recently used translation.
+		 */
+		LRU,
+
+		/**
+		 * Admits new translations through a small LRU window and keeps the most
+		 * frequently used ones in the main region (Window TinyLFU).
+		 */
+		W_TINY_LFU
+
+	}
+
 	/**
 	 * A builder to create new instances of {@link TranslatorConfig configurations}.
 	 */
@@ -139,20 +230,47 @@ public final class TranslatorConfig {
 
 		private String parseNamedParamPrefix;
 
+		private int cacheSize;
+
+		private CacheEvictionPolicy cacheEvictionPolicy;
+
+		private boolean extractLiterals;
+
+		private TranslationListener translationListener;
+
+		private List<TranslatorExtension> extensions;
+
+		private boolean indexFriendlyPredicates;
+
+		private Set<String> indexedProperties;
+
+		private boolean keysetPagination;
+
+		private boolean parameterizedInserts;
+
+		private Map<StatementType, Integer> batchSizes;
+
 		private Builder() {
 			this(ParseNameCase.LOWER_IF_UNQUOTED, RenderNameCase.LOWER, false, Map.of(), Map.of(), SQLDialect.DEFAULT,
-					true, null);
+					true, null, 0, CacheEvictionPolicy.LRU, false, TranslationListener.NOOP, List.of(), false, Set.of(),
+					false, false, Map.of());
 		}
 
 		private Builder(TranslatorConfig config) {
 			this(config.parseNameCase, config.renderNameCase, config.jooqDiagnosticLogging, config.tableToLabelMappings,
 					config.joinColumnsToTypeMappings, config.sqlDialect, config.prettyPrint,
-					config.parseNamedParamPrefix);
+					config.parseNamedParamPrefix, config.cacheSize, config.cacheEvictionPolicy, config.extractLiterals,
+					config.translationListener, config.extensions, config.indexFriendlyPredicates,
+					config.indexedProperties, config.keysetPagination, config.parameterizedInserts, config.batchSizes);
 		}
 
 		private Builder(ParseNameCase parseNameCase, RenderNameCase renderNameCase, boolean jooqDiagnosticLogging,
 				Map<String, String> tableToLabelMappings, Map<String, String> joinColumnsToTypeMappings,
-				SQLDialect sqlDialect, boolean prettyPrint, String parseNamedParamPrefix) {
+				SQLDialect sqlDialect, boolean prettyPrint, String parseNamedParamPrefix, int cacheSize,
+				CacheEvictionPolicy cacheEvictionPolicy, boolean extractLiterals,
+				TranslationListener translationListener, List<TranslatorExtension> extensions,
+				boolean indexFriendlyPredicates, Set<String> indexedProperties, boolean keysetPagination,
+				boolean parameterizedInserts, Map<StatementType, Integer> batchSizes) {
 			this.parseNameCase = parseNameCase;
 			this.renderNameCase = renderNameCase;
 			this.jooqDiagnosticLogging = jooqDiagnosticLogging;
@@ -161,6 +279,16 @@ public final class TranslatorConfig {
 			this.sqlDialect = sqlDialect;
 			this.prettyPrint = prettyPrint;
 			this.parseNamedParamPrefix = parseNamedParamPrefix;
+			this.cacheSize = cacheSize;
+			this.cacheEvictionPolicy = cacheEvictionPolicy;
+			this.extractLiterals = extractLiterals;
+			this.translationListener = translationListener;
+			this.extensions = extensions;
+			this.indexFriendlyPredicates = indexFriendlyPredicates;
+			this.indexedProperties = indexedProperties;
+			this.keysetPagination = keysetPagination;
+			this.parameterizedInserts = parameterizedInserts;
+			this.batchSizes = batchSizes;
 		}
 
 		/**
@@ -214,6 +342,17 @@ public final class TranslatorConfig {
 			return this;
 		}
 
+		/**
+		 * Applies both the table and the join column mappings of a catalog.
+		 * @param catalog the catalog providing the new mappings
+		 * @return this builder
+		 * @see MappingCatalog#read(java.nio.file.Path)
+		 */
+		public Builder withMappingCatalog(MappingCatalog catalog) {
+			return withTableToLabelMappings(catalog.getTableToLabelMappings())
+					.withJoinColumnsToTypeMappings(catalog.getJoinColumnsToTypeMappings());
+		}
+
 		/**
 		 * Applies a new {@link SQLDialect} for both parsing and optionally rendering SQL.
 		 * @param newSqlDialect the new sql dialect
@@ -245,6 +384,159 @@ public final class TranslatorConfig {
 			return this;
 		}
 
+		/**
+		 * Enables a cache of translations with the given maximum number of entries. The
+		 * cache is keyed by the SQL statement with insignificant whitespace removed and
+		 * lives as long as the {@link Translator} created with this configuration. A size
+		 * of {@literal 0} (the default) disables caching.
+		 * @param newCacheSize the maximum number of cached translations
+		 * @return this builder
+		 */
+		public Builder withCacheSize(int newCacheSize) {
+			if (newCacheSize < 0) {
+				throw new IllegalArgumentException("The cache size must not be negative");
+			}
+			this.cacheSize = newCacheSize;
+			return this;
+		}
+
+		/**
+		 * Configures the eviction policy of the translation cache, defaults to
+		 * {@link CacheEvictionPolicy#LRU}.
+		 * @param newCacheEvictionPolicy the new eviction policy
+		 * @return this builder
+		 */
+		public Builder withCacheEvictionPolicy(CacheEvictionPolicy newCacheEvictionPolicy) {
+			this.cacheEvictionPolicy = Objects.requireNonNull(newCacheEvictionPolicy);
+			return this;
+		}
+
+		/**
+		 * Enables the extraction of literals into Cypher parameters. All inline literals
+		 * of a SQL statement are replaced by parameters named {@code lit0},
+		 * {@code lit1}&hellip; in order of their appearance, so that statements only
+		 * differing in literal values translate to the same Cypher string. The values are
+		 * available through {@link Translation#parameters()}. If a
+		 * {@link #withCacheSize(int) cache} is configured, it caches the translation per
+		 * literal-free statement shape in this mode.
+		 * @param enabled set to {@literal true} to extract literals into parameters
+		 * @return this builder
+		 */
+		public Builder withExtractLiterals(boolean enabled) {
+			this.extractLiterals = enabled;
+			return this;
+		}
+
+		/**
+		 * Configures a listener that is notified about the metrics of each translation,
+		 * for example a {@link TranslationMetricsRecorder}. The default is
+		 * {@link TranslationListener#NOOP}, in which case no metrics are taken at all.
+		 * @param newTranslationListener the new listener, {@literal null} restores the
+		 * default
+		 * @return this builder
+		 */
+		public Builder withTranslationListener(TranslationListener newTranslationListener) {
+			this.translationListener = (newTranslationListener != null) ? newTranslationListener
+					: TranslationListener.NOOP;
+			return this;
+		}
+
+		/**
+		 * Adds extensions to the translator, in addition to the ones discovered via
+		 * {@link java.util.ServiceLoader}.
+		 * @param newExtensions the extensions to add
+		 * @return this builder
+		 */
+		public Builder withExtensions(List<? extends TranslatorExtension> newExtensions) {
+			this.extensions = List.copyOf(Objects.requireNonNull(newExtensions));
+			return this;
+		}
+
+		/**
+		 * Enables translating predicates into forms that can be answered from indexes:
+		 * {@code LIKE} patterns that only have leading and/or trailing wildcards become
+		 * {@code STARTS WITH}, {@code ENDS WITH} or {@code CONTAINS} instead of a regular
+		 * expression, and ranges are written with the property on the left-hand side.
+		 * @param enabled whether to emit index-friendly predicates
+		 * @return this builder
+		 * @see #withIndexedProperties(Set)
+		 */
+		public Builder withIndexFriendlyPredicates(boolean enabled) {
+			this.indexFriendlyPredicates = enabled;
+			return this;
+		}
+
+		/**
+		 * Restricts index-friendly predicates to the given properties. Properties are
+		 * given as table name and column name, separated by a dot, for example
+		 * {@code people.name}. If empty, which is the default, all predicates are
+		 * rewritten.
+		 * @param newIndexedProperties the indexed properties
+		 * @return this builder
+		 * @see #withIndexFriendlyPredicates(boolean)
+		 */
+		public Builder withIndexedProperties(Set<String> newIndexedProperties) {
+			this.indexedProperties = Set.copyOf(Objects.requireNonNull(newIndexedProperties));
+			return this;
+		}
+
+		/**
+		 * Enables translating row value comparisons, as used for keyset pagination such
+		 * as {@code WHERE (p.name, p.id) > ('Ada', 42) ORDER BY p.name, p.id}, so that
+		 * the first column is additionally bounded by an inclusive range. Neo4j can
+		 * answer that range from an index instead of scanning and skipping all preceding
+		 * rows.
+		 * @param enabled whether to optimize row value comparisons for keyset pagination
+		 * @return this builder
+		 */
+		public Builder withKeysetPagination(boolean enabled) {
+			this.keysetPagination = enabled;
+			return this;
+		}
+
+		/**
+		 * Enables translating inserts of multiple rows into a fixed statement that
+		 * unwinds a {@code rows} parameter instead of inlining all values, so that the
+		 * statement does not grow with the number of rows and can be cached by Neo4j. The
+		 * parameter is only used if all values are literals. It is numbered, for example
+		 * {@code rows1}, if the statement has a bind parameter named {@code rows}
+		 * already.
+		 * @param enabled whether to pass the rows of inserts as a parameter
+		 * @return this builder
+		 * @see #withBatchSize(StatementType, int)
+		 */
+		public Builder withParameterizedInserts(boolean enabled) {
+			this.parameterizedInserts = enabled;
+			return this;
+		}
+
+		/**
+		 * Configures statements of the given type to be executed in batches of the given
+		 * number of rows with {@code CALL { ... } IN TRANSACTIONS}, so that large
+		 * statements run in bounded memory. Such statements must be run in an implicit
+		 * transaction. Batching is supported for parameterized inserts, updates, deletes
+		 * and truncates.
+		 * @param type the type of statements to batch
+		 * @param rows the number of rows per transaction, {@literal 0} disables batching
+		 * @return this builder
+		 * @see #withParameterizedInserts(boolean)
+		 */
+		public Builder withBatchSize(StatementType type, int rows) {
+			if (rows < 0) {
+				throw new IllegalArgumentException("The batch size must not be negative");
+			}
+			var newBatchSizes = new EnumMap<StatementType, Integer>(StatementType.class);
+			newBatchSizes.putAll(this.batchSizes);
+			if (rows == 0) {
+				newBatchSizes.remove(Objects.requireNonNull(type));
+			}
+			else {
+				newBatchSizes.put(Objects.requireNonNull(type), rows);
+			}
+			this.batchSizes = Map.copyOf(newBatchSizes);
+			return this;
+		}
+
 		/**
 		 * Finishes building a new configuration. The builder is safe to reuse afterwards.
 		 * @return a new immutable configuration
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import java.util.List;
+
+import org.jooq.Field;
+import org.neo4j.cypherdsl.core.Condition;
+import org.neo4j.cypherdsl.core.Expression;
+
+/**
+ * Service provider interface for teaching the {@link Translator} about additional jOOQ
+ * query parts or for changing how existing ones are translated. Implementations are
+ * discovered via {@link java.util.ServiceLoader}, either declared with
+ * {@code provides org.neo4j.sql2cypher.TranslatorExtension with ...} in a module
+ * descriptor or listed in
+ * {@code META-INF/services/org.neo4j.sql2cypher.TranslatorExtension} on the class path,
+ * and can also be added explicitly via
+ * {@link TranslatorConfig.Builder#withExtensions(List)}.
+ * <p>
+ * Extensions are asked once per {@link Translator} to register their handlers. Handlers
+ * registered by extensions take precedence over the built-in ones and are looked up in
+ * constant time, exactly like the built-in handlers. Handlers must be stateless and
+ * thread safe.
+ *
+ * @author Sql2cypher Contributors
+ */
+public interface TranslatorExtension {
+
+	/**
+	 * Registers the handlers of this extension.
+	 * @param registry the registry to add handlers to
+	 */
+	void register(Registry registry);
+
+	/**
+	 * The registry handlers are added to.
+	 */
+	interface Registry {
+
+		/**
+		 * Registers a handler for all fields of the given type, usually one of the
+		 * {@code org.jooq.impl.QOM} interfaces, such as {@code QOM.Sinh}.
+		 * @param type the type of fields to handle
+		 * @param handler the handler
+		 * @param <T> the type of fields to handle
+		 * @return this registry
+		 */
+		<T extends Field<?>> Registry expression(Class<? super T> type, ExpressionHandler<T> handler);
+
+		/**
+		 * Registers a handler for all conditions of the given type, usually one of the
+		 * {@code org.jooq.impl.QOM} interfaces, such as {@code QOM.LikeIgnoreCase}.
+		 * @param type the type of conditions to handle
+		 * @param handler the handler
+		 * @param <T> the type of conditions to handle
+		 * @return this registry
+		 */
+		<T extends org.jooq.Condition> Registry condition(Class<? super T> type, ConditionHandler<T> handler);
+
+		/**
+		 * Registers a handler for a function unknown to jOOQ, such as a vendor specific
+		 * function. Function names are case insensitive. Registering a function enables
+		 * parsing of unknown functions.
+		 * @param name the name of the function
+		 * @param handler the handler
+		 * @return this registry
+		 */
+		Registry function(String name, FunctionHandler handler);
+
+	}
+
+	/**
+	 * Gives handlers access to the ongoing translation, so that they can translate nested
+	 * query parts.
+	 */
+	interface Context {
+
+		/**
+		 * Translates a nested field.
+		 * @param field the field to translate
+		 * @return the translated field
+		 */
+		Expression expression(Field<?> field);
+
+		/**
+		 * Translates a nested condition.
+		 * @param condition the condition to translate
+		 * @return the translated condition
+		 */
+		Condition condition(org.jooq.Condition condition);
+
+	}
+
+	/**
+	 * Translates a field into a Cypher expression.
+	 *
+	 * @param <T> the type of fields handled
+	 */
+	@FunctionalInterface
+	interface ExpressionHandler<T extends Field<?>> {
+
+		/**
+		 * Translates the given field.
+		 * @param context the ongoing translation
+		 * @param field the field to translate
+		 * @return the Cypher expression
+		 */
+		Expression apply(Context context, T field);
+
+	}
+
+	/**
+	 * Translates a condition into a Cypher condition.
+	 *
+	 * @param <T> the type of conditions handled
+	 */
+	@FunctionalInterface
+	interface ConditionHandler<T extends org.jooq.Condition> {
+
+		/**
+		 * Translates the given condition.
+		 * @param context the ongoing translation
+		 * @param condition the condition to translate
+		 * @return the Cypher condition
+		 */
+		Condition apply(Context context, T condition);
+
+	}
+
+	/**
+	 * Translates a call of a function unknown to jOOQ into a Cypher expression.
+	 */
+	@FunctionalInterface
+	interface FunctionHandler {
+
+		/**
+		 * Translates a function call.
+		 * @param context the ongoing translation
+		 * @param arguments the arguments of the function call
+		 * @return the Cypher expression
+		 */
+		Expression apply(Context context, List<? extends Field<?>> arguments);
+
+	}
+
+}
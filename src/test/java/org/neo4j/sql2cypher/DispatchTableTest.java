@@ -0,0 +1,42 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Sql2cypher Contributors
+ */
+class DispatchTableTest {
+
+	@Test
+	void firstMatchingHandlerShouldWin() {
+
+		var table = DispatchTable.<Object, Void, String>builder().on(ArrayList.class, (c, n) -> "arrayList")
+				.on(List.class, (c, n) -> "list").on(CharSequence.class, (c, n) -> "chars").build((c, n) -> "fallback");
+
+		assertThat(table.apply(null, new ArrayList<>())).isEqualTo("arrayList");
+		assertThat(table.apply(null, List.of())).isEqualTo("list");
+		assertThat(table.apply(null, new StringBuilder())).isEqualTo("chars");
+		assertThat(table.apply(null, 1)).isEqualTo("fallback");
+	}
+
+}
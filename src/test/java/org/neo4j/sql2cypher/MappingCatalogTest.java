@@ -0,0 +1,71 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * @author Sql2cypher Contributors
+ */
+class MappingCatalogTest {
+
+	@Test
+	void shouldReadJson() throws IOException {
+
+		var catalog = MappingCatalog.read(new StringReader("""
+				{
+					"tableToLabelMappings": { "people": "Person", "movies": "Movie" },
+					"joinColumnsToTypeMappings": { "people.directed": "DIRECTED" }
+				}
+				"""));
+
+		assertThat(catalog.getTableToLabelMappings()).containsOnly(entry("people", "Person"), entry("movies", "Movie"));
+		assertThat(catalog.getJoinColumnsToTypeMappings()).containsOnly(entry("people.directed", "DIRECTED"));
+		assertThat(catalog.label("people")).isEqualTo("Person");
+		assertThat(catalog.label("actors")).isEqualTo("actors");
+		assertThat(catalog.relationshipType("people", "directed")).isEqualTo("DIRECTED");
+		assertThat(catalog.relationshipType("people", "acted_in")).isNull();
+	}
+
+	@Test
+	void missingSectionsShouldBeEmpty() throws IOException {
+
+		assertThat(MappingCatalog.read(new StringReader("{}"))).isSameAs(MappingCatalog.empty());
+	}
+
+	@Test
+	void shouldRejectInvalidCatalogs() {
+
+		assertThatIllegalArgumentException().isThrownBy(() -> MappingCatalog.read(new StringReader("[]")))
+				.withMessage("Invalid mapping catalog, expected a JSON object");
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> MappingCatalog.read(new StringReader("{\"tableToLabelMappings\": {\"people\": 1}}")))
+				.withMessage("Invalid mapping catalog, expected a string for tableToLabelMappings.people");
+		assertThatIllegalArgumentException()
+				.isThrownBy(
+						() -> MappingCatalog.read(new StringReader("{\"joinColumnsToTypeMappings\": {\"a\": \"B\"}}")))
+				.withMessage("Invalid join column a, expected <table>.<column>");
+		assertThatIllegalArgumentException().isThrownBy(() -> MappingCatalog.read(new StringReader("{")));
+	}
+
+}
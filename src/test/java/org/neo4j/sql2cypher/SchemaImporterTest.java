@@ -0,0 +1,105 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * @author Sql2cypher Contributors
+ */
+class SchemaImporterTest {
+
+	@Test
+	void shouldImportSchemaVisualization() throws IOException {
+
+		var catalog = importSchema(
+				"""
+						[{
+							"nodes": [
+								{"identity": -1, "labels": ["Person"], "properties": {"name": "Person", "indexes": []}},
+								{"identity": -2, "labels": ["Movie"], "properties": {"name": "Movie", "indexes": []}}
+							],
+							"relationships": [
+								{"identity": -1, "start": -1, "end": -2, "type": "DIRECTED", "properties": {"name": "DIRECTED"}},
+								{"start": {"name": "Person"}, "end": {"name": "Movie"}, "properties": {"name": "ACTED_IN"}}
+							]
+						}]
+						""");
+
+		assertThat(catalog.getTableToLabelMappings()).containsOnly(entry("person", "Person"), entry("movie", "Movie"),
+				entry("directed", "DIRECTED"), entry("acted_in", "ACTED_IN"));
+		assertThat(catalog.getJoinColumnsToTypeMappings()).containsOnly(entry("person.directed", "DIRECTED"),
+				entry("person.acted_in", "ACTED_IN"));
+	}
+
+	@Test
+	void shouldImportApocMetaSchema() throws IOException {
+
+		var catalog = importSchema("""
+				{"value": {
+					"Person": {"type": "node", "count": 2, "properties": {}, "relationships": {
+						"DIRECTED": {"direction": "out", "count": 1, "labels": ["Movie"], "properties": {}}
+					}},
+					"Movie": {"type": "node", "count": 1, "properties": {}, "relationships": {
+						"DIRECTED": {"direction": "in", "count": 1, "labels": ["Person"], "properties": {}}
+					}},
+					"DIRECTED": {"type": "relationship", "count": 1, "properties": {}}
+				}}
+				""");
+
+		assertThat(catalog.getTableToLabelMappings()).containsOnly(entry("person", "Person"), entry("movie", "Movie"),
+				entry("directed", "DIRECTED"));
+		assertThat(catalog.getJoinColumnsToTypeMappings()).containsOnly(entry("person.directed", "DIRECTED"));
+	}
+
+	@Test
+	void importedMappingsShouldDriveTranslations() throws IOException {
+
+		var catalog = SchemaImporter.importSchema(new StringReader("""
+				{"nodes": [{"id": 1, "name": "Person"}, {"id": 2, "name": "Movie"}],
+				"relationships": [{"startNode": 1, "endNode": 2, "type": "DIRECTED"}]}
+				"""), (name) -> name.toLowerCase(Locale.ROOT) + "s");
+		var translator = Translator
+				.with(TranslatorConfig.builder().withPrettyPrint(false).withMappingCatalog(catalog).build());
+
+		assertThat(translator.convert("SELECT p.name, m.title FROM persons p JOIN movies m ON m.id = p.directeds"))
+				.isEqualTo("MATCH (p:`Person`)-[:`DIRECTED`]->(m:`Movie`) RETURN p.name, m.title");
+	}
+
+	@Test
+	void shouldRejectInvalidExports() {
+
+		assertThatIllegalArgumentException().isThrownBy(() -> importSchema("\"nodes\""));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> importSchema("{\"nodes\": [], \"relationships\": [{\"start\": 1, \"type\": \"X\"}]}"))
+				.withMessage("Invalid schema export, unknown start node of X");
+		assertThatIllegalArgumentException().isThrownBy(() -> importSchema("{\"nodes\": [{\"labels\": []}]}"))
+				.withMessage("Invalid schema export, missing or invalid label");
+	}
+
+	private static MappingCatalog importSchema(String json) throws IOException {
+		return SchemaImporter.importSchema(new StringReader(json), (name) -> name.toLowerCase(Locale.ROOT));
+	}
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Sql2cypher Contributors
+ */
+class StatementReaderTest {
+
+	@Test
+	void shouldSplitOnSemicolonsAndNewLines() {
+
+		assertThat(read("SELECT 1; SELECT 2\nSELECT 3;\n\n;SELECT 4")).containsExactly("SELECT 1", "SELECT 2",
+				"SELECT 3", "SELECT 4");
+	}
+
+	@Test
+	void shouldNotSplitInsideQuotesOrBlockComments() {
+
+		assertThat(read("SELECT 'a;\nb', \"c;d\", `e;f` /* g;\nh */ FROM p; SELECT 2"))
+				.containsExactly("SELECT 'a;\nb', \"c;d\", `e;f` /* g;\nh */ FROM p", "SELECT 2");
+	}
+
+	@Test
+	void shouldDropLineComments() {
+
+		assertThat(read("-- A header\nSELECT 1 -- trailing; comment\nSELECT 2 - 1")).containsExactly("SELECT 1",
+				"SELECT 2 - 1");
+	}
+
+	private static List<String> read(String input) {
+
+		var result = new ArrayList<String>();
+		new StatementReader(new StringReader(input)).forEachRemaining(result::add);
+		return result;
+	}
+
+}
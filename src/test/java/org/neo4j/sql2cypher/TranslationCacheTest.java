@@ -0,0 +1,141 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Sql2cypher Contributors
+ */
+class TranslationCacheTest {
+
+	@ParameterizedTest
+	@CsvSource(delimiterString = "|", textBlock = """
+			SELECT  1\tFROM   p                   | SELECT 1 FROM p
+			'  SELECT 1 '                         | SELECT 1
+			SELECT 'a  b' FROM p                  | SELECT 'a  b' FROM p
+			SELECT "a  b" FROM `c  d`             | SELECT "a  b" FROM `c  d`
+			SELECT 1 /*  x  */  FROM p            | SELECT 1 /*  x  */ FROM p
+			""")
+	void normalizeShouldOnlyRemoveInsignificantWhitespace(String sql, String expected) {
+		assertThat(TranslationCache.normalize(sql)).isEqualTo(expected);
+	}
+
+	@Test
+	void normalizeShouldKeepLineCommentsIntact() {
+		assertThat(TranslationCache.normalize("SELECT 1 -- a comment\n  FROM p"))
+				.isEqualTo("SELECT 1 -- a comment\nFROM p");
+	}
+
+	@Test
+	void normalizeShouldNotTouchStatementsWithBackslashesInLiterals() {
+
+		var sql = "SELECT 'it\\'s  a' FROM  p";
+		assertThat(TranslationCache.normalize(sql)).isEqualTo(sql);
+		assertThat(TranslationCache.normalize("SELECT 'it\\'s a' FROM  p")).isNotEqualTo(sql);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "SELECT $$a  b$$", "SELECT $tag$a  b$tag$  FROM  p", "SELECT [a  b]  FROM  p" })
+	void normalizeShouldNotTouchStatementsWithDollarQuotesOrBrackets(String sql) {
+		assertThat(TranslationCache.normalize(sql)).isEqualTo(sql);
+	}
+
+	@Test
+	void dollarQuotedStringsShouldNotShareCacheEntries() {
+
+		var translator = Translator.with(TranslatorConfig.builder().withPrettyPrint(false).withCacheSize(10).build());
+
+		assertThat(translator.convert("SELECT $$a  b$$")).isEqualTo("RETURN 'a  b'");
+		assertThat(translator.convert("SELECT $$a b$$")).isEqualTo("RETURN 'a b'");
+		assertThat(translator.getCacheStatistics().hits()).isZero();
+	}
+
+	@Test
+	void lruShouldEvictLeastRecentlyUsed() {
+
+		var cache = new TranslationCache<String>(2, TranslatorConfig.CacheEvictionPolicy.LRU);
+		var loads = new AtomicInteger();
+		cache.get("a", countingLoader(loads));
+		cache.get("b", countingLoader(loads));
+		cache.get("a", countingLoader(loads));
+		cache.get("c", countingLoader(loads));
+		cache.get("a", countingLoader(loads));
+		cache.get("b", countingLoader(loads));
+
+		assertThat(loads).hasValue(4);
+		assertThat(cache.getStatistics()).isEqualTo(new CacheStatistics(2, 4, 2, 2));
+	}
+
+	@Test
+	void wTinyLfuShouldKeepFrequentlyUsedEntries() {
+
+		var cache = new TranslationCache<String>(100, TranslatorConfig.CacheEvictionPolicy.W_TINY_LFU);
+		var loads = new AtomicInteger();
+		for (int i = 0; i < 10; ++i) {
+			for (int j = 0; j < 50; ++j) {
+				cache.get("hot" + j, countingLoader(loads));
+			}
+		}
+		assertThat(loads).hasValue(50);
+
+		for (int i = 0; i < 1_000; ++i) {
+			cache.get("cold" + i, countingLoader(loads));
+		}
+		loads.set(0);
+		for (int j = 0; j < 50; ++j) {
+			cache.get("hot" + j, countingLoader(loads));
+		}
+		assertThat(loads.get()).isLessThan(5);
+		assertThat(cache.getStatistics().size()).isLessThanOrEqualTo(100);
+	}
+
+	@Test
+	void failuresShouldNotBeCached() {
+
+		var cache = new TranslationCache<String>(2, TranslatorConfig.CacheEvictionPolicy.LRU);
+		var loads = new AtomicInteger();
+		for (int i = 0; i < 2; ++i) {
+			try {
+				cache.get("a", (sql) -> {
+					loads.incrementAndGet();
+					throw new IllegalArgumentException();
+				});
+			}
+			catch (IllegalArgumentException ex) {
+				// Expected
+			}
+		}
+		assertThat(loads).hasValue(2);
+		assertThat(cache.getStatistics().size()).isZero();
+	}
+
+	private static Function<String, String> countingLoader(AtomicInteger counter) {
+		return (sql) -> {
+			counter.incrementAndGet();
+			return sql.toUpperCase();
+		};
+	}
+
+}
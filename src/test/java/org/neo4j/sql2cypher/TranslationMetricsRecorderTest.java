@@ -0,0 +1,60 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.sql2cypher;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * @author Sql2cypher Contributors
+ */
+class TranslationMetricsRecorderTest {
+
+	@ParameterizedTest
+	@ValueSource(longs = { 0, 1, 15, 16, 17, 31, 32, 33, 1_000, 123_456_789, Long.MAX_VALUE })
+	void bucketsShouldBeAccurateToASixteenth(long value) {
+
+		var highestValue = TranslationMetricsRecorder.highestValue(TranslationMetricsRecorder.bucketIndex(value));
+		assertThat(highestValue).isGreaterThanOrEqualTo(value);
+		assertThat((double) highestValue).isCloseTo(value, within(value / 16.0));
+	}
+
+	@Test
+	void histogramsShouldOnlyContainTheValuesOfTheirInterval() {
+
+		var recorder = new TranslationMetricsRecorder();
+		for (long nanos = 1; nanos <= 100; ++nanos) {
+			recorder.onTranslation(new TranslationMetrics(StatementType.SELECT, nanos * 1_000, 0, 0, 1, false));
+		}
+
+		var histogram = recorder.getIntervalHistogram(TranslationMetricsRecorder.Metric.TOTAL_NANOS);
+		assertThat(histogram.getTotalCount()).isEqualTo(100L);
+		assertThat(histogram.getValueAtPercentile(50)).isBetween(50_000L, 53_125L);
+		assertThat(histogram.getValueAtPercentile(100)).isEqualTo(histogram.getMaxValue()).isBetween(100_000L,
+				106_250L);
+
+		recorder.onTranslation(new TranslationMetrics(StatementType.SELECT, 7, 0, 0, 1, false));
+		histogram = recorder.getIntervalHistogram(TranslationMetricsRecorder.Metric.TOTAL_NANOS);
+		assertThat(histogram.getTotalCount()).isOne();
+		assertThat(histogram.getMaxValue()).isEqualTo(7L);
+		assertThat(recorder.getIntervalHistogram(TranslationMetricsRecorder.Metric.TOTAL_NANOS).getMaxValue()).isZero();
+	}
+
+}
@@ -24,8 +24,15 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.asciidoctor.Asciidoctor;
@@ -34,13 +41,21 @@ import org.asciidoctor.ast.Block;
 import org.asciidoctor.ast.ContentNode;
 import org.asciidoctor.ast.Document;
 import org.asciidoctor.extension.Treeprocessor;
+import org.jooq.impl.QOM;
 import org.junit.jupiter.api.DynamicContainer;
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.cypherdsl.core.Cypher;
+import org.neo4j.cypherdsl.core.Functions;
 import org.neo4j.cypherdsl.parser.CypherParser;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
 
 /**
  * @author Michael J. Simons
@@ -56,6 +71,475 @@ class TranslatorTest {
 				.isEqualTo("CREATE (movie:`movie` {title: $1})");
 	}
 
+	@Test
+	void translationsShouldBeCachedWhenConfigured() {
+
+		var translator = Translator.with(TranslatorConfig.builder().withPrettyPrint(false).withCacheSize(10).build());
+		assertThat(translator.convert("SELECT p.name FROM people p")).isEqualTo("MATCH (p:`people`) RETURN p.name");
+		assertThat(translator.convert(" SELECT p.name\n  FROM people p "))
+				.isEqualTo("MATCH (p:`people`) RETURN p.name");
+		assertThat(translator.getCacheStatistics()).isEqualTo(new CacheStatistics(1, 1, 0, 1));
+
+		assertThat(Translator.defaultTranslator().getCacheStatistics()).isEqualTo(CacheStatistics.EMPTY);
+	}
+
+	@Test
+	void reloadingMappingsShouldInvalidateCaches() {
+
+		var translator = Translator.with(TranslatorConfig.builder().withPrettyPrint(false).withCacheSize(10)
+				.withTableToLabelMappings(Map.of("people", "Person")).build());
+		var sql = "SELECT p.name FROM people p";
+		assertThat(translator.convert(sql)).isEqualTo("MATCH (p:`Person`) RETURN p.name");
+
+		translator.reload(MappingCatalog.of(Map.of("people", "Actor"), Map.of()));
+		assertThat(translator.getCacheStatistics()).isEqualTo(CacheStatistics.EMPTY);
+		assertThat(translator.convert(sql)).isEqualTo("MATCH (p:`Actor`) RETURN p.name");
+		assertThat(translator.convert(sql)).isEqualTo("MATCH (p:`Actor`) RETURN p.name");
+		assertThat(translator.getCacheStatistics()).isEqualTo(new CacheStatistics(1, 1, 0, 1));
+	}
+
+	@Test
+	void literalsShouldBeExtractedIntoParameters() {
+
+		var translator = Translator.with(
+				TranslatorConfig.builder().withPrettyPrint(false).withExtractLiterals(true).withCacheSize(10).build());
+
+		var first = translator.translate("SELECT p.name FROM people p WHERE p.id = 17 AND p.name LIKE 'A%' LIMIT 5");
+		var second = translator.translate("SELECT p.name FROM people p WHERE p.id = 42 AND p.name LIKE 'B%' LIMIT 10");
+		assertThat(first.cypher())
+				.isEqualTo("MATCH (p:`people`) WHERE (p.id = $lit0 AND p.name =~ $lit1) RETURN p.name LIMIT $lit2");
+		assertThat(second.cypher()).isEqualTo(first.cypher());
+		assertThat(first.parameters()).containsExactly(entry("lit0", 17L), entry("lit1", "A.*"), entry("lit2", 5L));
+		assertThat(second.parameters()).containsExactly(entry("lit0", 42L), entry("lit1", "B.*"), entry("lit2", 10L));
+		assertThat(translator.getCacheStatistics()).isEqualTo(new CacheStatistics(1, 1, 0, 1));
+	}
+
+	@Test
+	void namedParametersShouldBePartOfTheStatementShape() {
+
+		var translator = Translator.with(
+				TranslatorConfig.builder().withPrettyPrint(false).withExtractLiterals(true).withCacheSize(10).build());
+
+		assertThat(translator.convert("SELECT p.name FROM people p WHERE p.id = :id"))
+				.isEqualTo("MATCH (p:`people`) WHERE p.id = $id RETURN p.name");
+		assertThat(translator.convert("SELECT p.name FROM people p WHERE p.id = :other"))
+				.isEqualTo("MATCH (p:`people`) WHERE p.id = $other RETURN p.name");
+		assertThat(translator.getCacheStatistics().misses()).isEqualTo(2);
+	}
+
+	@Test
+	void scriptsShouldBeTranslatedInOnePass() {
+
+		var translator = Translator.with(TranslatorConfig.builder().withPrettyPrint(false).build());
+		var script = """
+				-- Some data
+				INSERT INTO people (name) VALUES ('a;b');
+				/* and a query; */ SELECT p.name
+				FROM people p;
+				DELETE FROM people
+				""";
+
+		assertThat(translator.convertScript(script)).containsExactly("CREATE (people:`people` {name: 'a;b'})",
+				"MATCH (p:`people`) RETURN p.name", "MATCH (people:`people`) DELETE people");
+		assertThat(translator.convertToScript(script)).isEqualTo("""
+				CREATE (people:`people` {name: 'a;b'});
+				MATCH (p:`people`) RETURN p.name;
+				MATCH (people:`people`) DELETE people;""");
+	}
+
+	@Test
+	void listenersShouldBeNotifiedAboutEachTranslation() {
+
+		var events = new CopyOnWriteArrayList<Object>();
+		var recorder = new TranslationMetricsRecorder();
+		var translator = Translator.with(TranslatorConfig.builder().withTranslationListener(new TranslationListener() {
+			@Override
+			public void onTranslation(TranslationMetrics metrics) {
+				events.add(metrics);
+				recorder.onTranslation(metrics);
+			}
+
+			@Override
+			public void onFailure(TranslationMetrics metrics, RuntimeException failure) {
+				events.add(failure);
+				recorder.onFailure(metrics, failure);
+			}
+		}).build());
+
+		translator.convert("SELECT p.name FROM people p WHERE p.age > 21");
+		translator.convertAll(List.of("DELETE FROM people", "SELECT FROM WHERE", "DROP TABLE people"));
+
+		assertThat(events).hasSize(4);
+		var metrics = (TranslationMetrics) events.get(0);
+		assertThat(metrics.statementType()).isEqualTo(StatementType.SELECT);
+		assertThat(metrics.parseNanos()).isPositive();
+		assertThat(metrics.buildNanos()).isPositive();
+		assertThat(metrics.renderNanos()).isPositive();
+		assertThat(metrics.nodeCount()).isPositive();
+		assertThat(metrics.cached()).isFalse();
+		assertThat(events.get(2)).isInstanceOf(RuntimeException.class);
+
+		assertThat(recorder.getTranslationCounts()).containsEntry(StatementType.SELECT, 1L)
+				.containsEntry(StatementType.DELETE, 1L);
+		assertThat(recorder.getFailureCounts()).containsOnly(entry("java.lang.IllegalArgumentException", 1L),
+				entry("org.jooq.impl.ParserException", 1L));
+		var histogram = recorder.getIntervalHistogram(TranslationMetricsRecorder.Metric.TOTAL_NANOS);
+		assertThat(histogram.getTotalCount()).isEqualTo(2L);
+		assertThat(recorder.getIntervalHistogram(TranslationMetricsRecorder.Metric.TOTAL_NANOS).getTotalCount())
+				.isZero();
+	}
+
+	@Test
+	void failingListenersShouldNotAffectTranslations() {
+
+		var listenerFailure = new IllegalStateException("Metrics sink unavailable");
+		var translator = Translator.with(
+				TranslatorConfig.builder().withPrettyPrint(false).withTranslationListener(new TranslationListener() {
+					@Override
+					public void onTranslation(TranslationMetrics metrics) {
+						throw listenerFailure;
+					}
+
+					@Override
+					public void onFailure(TranslationMetrics metrics, RuntimeException failure) {
+						throw listenerFailure;
+					}
+				}).build());
+
+		assertThat(translator.convert("SELECT p.name FROM people p")).isEqualTo("MATCH (p:`people`) RETURN p.name");
+		assertThatIllegalArgumentException().isThrownBy(() -> translator.convert("DROP TABLE people"))
+				.satisfies((ex) -> assertThat(ex.getSuppressed()).containsExactly(listenerFailure));
+	}
+
+	@Test
+	void extensionsShouldBeAbleToHandleFunctionsAndQueryParts() {
+
+		TranslatorExtension extension = (registry) -> registry
+				.function("my_upper", (c, args) -> Functions.toUpper(c.expression(args.get(0))))
+				.expression(QOM.Sinh.class,
+						(c, e) -> Functions.exp(c.expression(e.$arg1()))
+								.subtract(Functions.exp(c.expression(e.$arg1()).multiply(Cypher.literalOf(-1))))
+								.divide(Cypher.literalOf(2)))
+				.condition(QOM.LikeIgnoreCase.class, (c, e) -> Functions.toLower(c.expression(e.$arg1()))
+						.startsWith(Functions.toLower(c.expression(e.$arg2()))));
+		var translator = Translator
+				.with(TranslatorConfig.builder().withExtensions(List.of(extension)).withPrettyPrint(false).build());
+
+		assertThat(translator.convert("SELECT my_upper(p.name), sinh(p.age) FROM people p WHERE p.name ILIKE 'a'"))
+				.isEqualTo(
+						"MATCH (p:`people`) WHERE toLower(p.name) STARTS WITH toLower('a') RETURN toUpper(p.name), ((exp(p.age) - exp((p.age * -1))) / 2)");
+		assertThatIllegalArgumentException().isThrownBy(() -> translator.convert("SELECT other(p.name) FROM people p"));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> Translator.defaultTranslator().convert("SELECT sinh(p.age) FROM people p"));
+	}
+
+	@Test
+	void batchesShouldReportFailuresPerStatement() {
+
+		var translator = Translator.with(TranslatorConfig.builder().withPrettyPrint(false).build());
+		var statements = List.of("SELECT p.name FROM people p", "SELECT FROM WHERE", "DELETE FROM people");
+
+		var results = translator.convertAll(statements);
+		assertThat(results).extracting(BatchResult::index).containsExactly(0L, 1L, 2L);
+		assertThat(results).extracting(BatchResult::isSuccess).containsExactly(true, false, true);
+		assertThat(results.get(0).translation().cypher()).isEqualTo("MATCH (p:`people`) RETURN p.name");
+		assertThat(results.get(1).sql()).isEqualTo("SELECT FROM WHERE");
+		assertThat(results.get(1).failure()).isNotNull();
+		assertThat(results.get(2).translation().cypher()).isEqualTo("MATCH (people:`people`) DELETE people");
+
+		assertThat(translator.convertAll(statements.stream())).extracting(BatchResult::index, BatchResult::translation)
+				.containsExactly(tuple(0L, results.get(0).translation()), tuple(1L, null),
+						tuple(2L, results.get(2).translation()));
+	}
+
+	@Test
+	void parallelBatchesShouldKeepInputOrder() {
+
+		var translator = Translator.with(TranslatorConfig.builder().withPrettyPrint(false).build());
+		var statements = IntStream.range(0, 1_000)
+				.mapToObj(i -> (i % 10 == 0) ? "SELECT FROM WHERE" : "SELECT p.name FROM people p WHERE p.id = " + i)
+				.toList();
+
+		var expected = translator.convertAll(statements);
+		var results = translator.convertAll(statements, 4);
+		assertThat(results).extracting(BatchResult::index, BatchResult::translation)
+				.containsExactlyElementsOf(expected.stream().map(r -> tuple(r.index(), r.translation())).toList());
+
+		assertThatIllegalArgumentException().isThrownBy(() -> translator.convertAll(statements, 0));
+	}
+
+	@Test
+	void indexFriendlyPredicatesShouldBeUsedWhenEnabled() {
+
+		var translator = Translator.with(TranslatorConfig.builder().withPrettyPrint(false)
+				.withIndexFriendlyPredicates(true).withIndexedProperties(Set.of("people.name", "people.age")).build());
+
+		assertThat(translator.convert(
+				"SELECT p.name FROM people p WHERE p.name LIKE 'A%' OR p.name LIKE '%a' OR p.name LIKE '%b%' OR p.name LIKE 'c' OR p.name LIKE 'd%e'"))
+						.isEqualTo(
+								"MATCH (p:`people`) WHERE (p.name STARTS WITH 'A' OR p.name ENDS WITH 'a' OR p.name CONTAINS 'b' OR p.name = 'c' OR p.name =~ 'd.*e') RETURN p.name");
+		assertThat(translator.convert("SELECT p.name FROM people p WHERE 18 < p.age AND p.age BETWEEN 20 AND 30"))
+				.isEqualTo("MATCH (p:`people`) WHERE (p.age > 18 AND p.age >= 20 AND p.age <= 30) RETURN p.name");
+		assertThat(translator.convert("SELECT p.name FROM people p WHERE p.title LIKE 'A%' AND 18 < p.height"))
+				.isEqualTo("MATCH (p:`people`) WHERE (p.title =~ 'A.*' AND 18 < p.height) RETURN p.name");
+	}
+
+	@Test
+	void cachedTemplatesShouldOnlyBeReusedForMatchingLikePatterns() {
+
+		var translator = Translator.with(TranslatorConfig.builder().withPrettyPrint(false)
+				.withIndexFriendlyPredicates(true).withExtractLiterals(true).withCacheSize(10).build());
+
+		var prefix = translator.translate("SELECT p.name FROM people p WHERE p.name LIKE 'A%'");
+		assertThat(prefix.cypher()).isEqualTo("MATCH (p:`people`) WHERE p.name STARTS WITH $lit0 RETURN p.name");
+		assertThat(prefix.parameters()).containsOnly(entry("lit0", "A"));
+
+		var regex = translator.translate("SELECT p.name FROM people p WHERE p.name LIKE 'A%B'");
+		assertThat(regex.cypher()).isEqualTo("MATCH (p:`people`) WHERE p.name =~ $lit0 RETURN p.name");
+		assertThat(regex.parameters()).containsOnly(entry("lit0", "A.*B"));
+
+		var otherPrefix = translator.translate("SELECT p.name FROM people p WHERE p.name LIKE 'B%'");
+		assertThat(otherPrefix.cypher()).isEqualTo(prefix.cypher());
+		assertThat(otherPrefix.parameters()).containsOnly(entry("lit0", "B"));
+	}
+
+	@Test
+	void inListsShouldNotDependOnTheirLength() {
+
+		var translator = Translator.with(
+				TranslatorConfig.builder().withPrettyPrint(false).withExtractLiterals(true).withCacheSize(10).build());
+
+		var shortList = translator.translate("SELECT p.name FROM people p WHERE p.id IN (1, 2) AND p.age > 17");
+		var longList = translator.translate("SELECT p.name FROM people p WHERE p.id IN (3, 4, 5) AND p.age > 18");
+		assertThat(shortList.cypher())
+				.isEqualTo("MATCH (p:`people`) WHERE (p.id IN $lit0 AND p.age > $lit1) RETURN p.name")
+				.isEqualTo(longList.cypher());
+		assertThat(shortList.parameters()).containsOnly(entry("lit0", List.of(1L, 2L)), entry("lit1", 17L));
+		assertThat(longList.parameters()).containsOnly(entry("lit0", List.of(3L, 4L, 5L)), entry("lit1", 18L));
+
+		assertThat(translator.translate("SELECT p.name FROM people p WHERE p.id IN (:ids)").cypher())
+				.isEqualTo("MATCH (p:`people`) WHERE p.id IN $ids RETURN p.name");
+
+		var twoParameters = translator.translate("SELECT p.name FROM people p WHERE p.age > ? AND p.id IN (?, ?)");
+		var threeParameters = translator.translate("SELECT p.name FROM people p WHERE p.age > ? AND p.id IN (?, ?, ?)");
+		assertThat(twoParameters.cypher())
+				.isEqualTo("MATCH (p:`people`) WHERE (p.age > $0 AND p.id IN $list) RETURN p.name")
+				.isEqualTo(threeParameters.cypher());
+		assertThat(threeParameters.parameters()).containsOnlyKeys("0", "list");
+		assertThat(threeParameters.parameters().get("list")).asList().hasSize(3);
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	void listsOfBindParametersShouldNotHideOtherParameters(boolean extractLiterals) {
+
+		var translator = Translator.with(TranslatorConfig.builder().withPrettyPrint(false)
+				.withExtractLiterals(extractLiterals).withCacheSize(10).build());
+
+		var reused = translator.translate("SELECT p.name FROM people p WHERE p.id = :a AND p.x IN (:a, :b)");
+		assertThat(reused.cypher()).isEqualTo("MATCH (p:`people`) WHERE (p.id = $a AND p.x IN $list) RETURN p.name");
+		assertThat(reused.parameters()).containsOnlyKeys("a", "list");
+		assertThat(reused.parameters().get("list")).asList().hasSize(2);
+
+		var twoLists = translator.translate("SELECT p.name FROM people p WHERE p.x IN (:a, :b) OR p.y IN (:a, :c)");
+		assertThat(twoLists.cypher())
+				.isEqualTo("MATCH (p:`people`) WHERE (p.x IN $list OR p.y IN $list1) RETURN p.name");
+		assertThat(twoLists.parameters()).containsOnlyKeys("list", "list1");
+
+		var taken = translator.translate("SELECT p.name FROM people p WHERE p.id = :list AND p.x IN (:a, :b)");
+		assertThat(taken.cypher()).isEqualTo("MATCH (p:`people`) WHERE (p.id = $list AND p.x IN $list1) RETURN p.name");
+	}
+
+	@Test
+	void ordinalsShouldNotBeTakenFromCachedTemplates() {
+
+		var translator = Translator.with(
+				TranslatorConfig.builder().withPrettyPrint(false).withExtractLiterals(true).withCacheSize(10).build());
+
+		assertThat(translator.convert("SELECT p.name, max(p.age) FROM people p GROUP BY 1 ORDER BY 2"))
+				.isEqualTo("MATCH (p:`people`) WITH p.name AS name, max(p.age) AS max RETURN name, max ORDER BY max");
+		assertThat(translator.convert("SELECT p.name, max(p.age) FROM people p GROUP BY 2 ORDER BY 1"))
+				.isEqualTo("MATCH (p:`people`) WITH p.name AS name, max(p.age) AS max RETURN name, max ORDER BY name");
+	}
+
+	@Test
+	void tablesOfSubqueriesShouldNotReferToTheEnclosingQuery() {
+
+		var translator = Translator.with(TranslatorConfig.builder().withPrettyPrint(false).build());
+
+		assertThat(translator.convert(
+				"SELECT p.name FROM people p WHERE p.id IN (SELECT p.id FROM people p WHERE p.age > 3)")).isEqualTo(
+						"MATCH (p:`people`) WHERE EXISTS { MATCH (p_1:`people`) WHERE (p_1.age > 3 AND p_1.id = p.id) } RETURN p.name");
+		assertThat(translator
+				.convert("SELECT p.name FROM people p WHERE p.id IN (SELECT id FROM people WHERE age > 3)")).isEqualTo(
+						"MATCH (p:`people`) WHERE EXISTS { MATCH (people_1:`people`) WHERE (people_1.age > 3 AND people_1.id = p.id) } RETURN p.name");
+	}
+
+	@Test
+	void rowsOfInsertsShouldBePassedAsParameter() {
+
+		var config = TranslatorConfig.builder().withPrettyPrint(false).withParameterizedInserts(true).build();
+		var sql = "INSERT INTO people (name, born) VALUES ('Helge', 1955), ('Bela', 1962)";
+
+		var translation = Translator.with(config).translate(sql);
+		assertThat(translation.cypher())
+				.isEqualTo("UNWIND $rows AS properties CREATE (people:`people`) SET people = properties");
+		assertThat(translation.parameters()).containsOnly(
+				entry("rows", List.of(Map.of("name", "Helge", "born", 1955L), Map.of("name", "Bela", "born", 1962L))));
+
+		var batched = Translator.with(config.modify().withBatchSize(StatementType.INSERT, 1000).build()).translate(sql);
+		assertThat(batched.cypher()).isEqualTo(
+				"UNWIND $rows AS properties CALL {WITH properties CREATE (people:`people`) SET people = properties} IN TRANSACTIONS OF 1000 ROWS");
+		assertThat(batched.parameters()).isEqualTo(translation.parameters());
+	}
+
+	@Test
+	void deletesShouldBeBatchedPerStatementType() {
+
+		var translator = Translator.with(TranslatorConfig.builder().withPrettyPrint(false)
+				.withBatchSize(StatementType.DELETE, 500).withBatchSize(StatementType.TRUNCATE, 10000).build());
+
+		assertThat(translator.convert("DELETE FROM people p WHERE p.born < 1900"))
+				.isEqualTo("MATCH (p:`people`) WHERE p.born < 1900 CALL {WITH p DELETE p} IN TRANSACTIONS OF 500 ROWS");
+		assertThat(translator.convert("TRUNCATE TABLE people")).isEqualTo(
+				"MATCH (people:`people`) CALL {WITH people DETACH DELETE people} IN TRANSACTIONS OF 10000 ROWS");
+		assertThat(translator.convert("INSERT INTO people (name) VALUES ('Helge')"))
+				.isEqualTo("CREATE (people:`people` {name: 'Helge'})");
+	}
+
+	@Test
+	void updatesShouldBeBatchedWhenConfigured() {
+
+		var translator = Translator.with(
+				TranslatorConfig.builder().withPrettyPrint(false).withBatchSize(StatementType.UPDATE, 100).build());
+
+		assertThat(translator.convert("UPDATE people SET name = 'x', born = 1 WHERE born < 1900")).isEqualTo(
+				"MATCH (people:`people`) WHERE people.born < 1900 CALL {WITH people SET people += {name: 'x', born: 1}} IN TRANSACTIONS OF 100 ROWS");
+	}
+
+	@Test
+	void translationsShouldDescribeTheStatement() {
+
+		var translator = Translator.with(TranslatorConfig.builder()
+				.withTableToLabelMappings(Map.of("people", "Person", "movies", "Movie", "movie_actors", "ACTED_IN"))
+				.build());
+
+		var read = translator.translate(
+				"SELECT p.name, m.title FROM people p JOIN movie_actors r ON r.person_id = p.id JOIN movies m ON m.id = r.person_id");
+		assertThat(read.statementType()).isEqualTo(StatementType.SELECT);
+		assertThat(read.isReadOnly()).isTrue();
+		assertThat(read.labels()).containsExactlyInAnyOrder("Person", "Movie");
+		assertThat(read.relationshipTypes()).containsExactly("ACTED_IN");
+
+		var write = translator.translate("DELETE FROM people p WHERE p.id = 1");
+		assertThat(write.statementType()).isEqualTo(StatementType.DELETE);
+		assertThat(write.isReadOnly()).isFalse();
+		assertThat(write.labels()).containsExactly("Person");
+		assertThat(write.relationshipTypes()).isEmpty();
+	}
+
+	@Test
+	void upsertsShouldMergeOnTheConflictKey() {
+
+		var translator = Translator.with(TranslatorConfig.builder().withPrettyPrint(false)
+				.withParameterizedInserts(true).withBatchSize(StatementType.INSERT, 1000).build());
+
+		var translation = translator.translate(
+				"INSERT INTO people (id, name) VALUES (1, 'A'), (2, 'B') ON CONFLICT (id) DO UPDATE SET name = excluded.name");
+		assertThat(translation.cypher()).isEqualTo(
+				"UNWIND $rows AS properties CALL {WITH properties MERGE (people:`people` {id: properties.id}) ON CREATE SET people += {name: properties.name} ON MATCH SET people += {name: properties.name}} IN TRANSACTIONS OF 1000 ROWS");
+		assertThat(translation.parameters()).containsOnlyKeys("rows");
+
+		translation = translator.translate(
+				"INSERT INTO people (id, name) VALUES (1, 'A'), (2, 'B') ON CONFLICT (id) DO UPDATE SET name = :rows");
+		assertThat(translation.cypher()).startsWith("UNWIND $rows1 AS properties").contains("{name: $rows}");
+		assertThat(translation.parameters()).containsOnlyKeys("rows", "rows1");
+		assertThatIllegalArgumentException().isThrownBy(() -> translator
+				.convert("INSERT INTO people (id, name) VALUES (1, 'A') ON DUPLICATE KEY UPDATE name = 'B'"));
+	}
+
+	@Test
+	void rowValueComparisonsShouldBeBoundedForKeysetPagination() {
+
+		var translator = Translator
+				.with(TranslatorConfig.builder().withPrettyPrint(false).withKeysetPagination(true).build());
+
+		assertThat(translator.convert(
+				"SELECT p.name FROM people p WHERE (p.name, p.id) > ('Ada', 42) ORDER BY p.name ASC, p.id ASC LIMIT 10"))
+						.isEqualTo(
+								"MATCH (p:`people`) WHERE (p.name >= 'Ada' AND (p.name > 'Ada' OR (p.name = 'Ada' AND p.id > 42))) RETURN p.name ORDER BY p.name ASC, p.id ASC LIMIT 10");
+		assertThat(translator.convert("SELECT p.name FROM people p WHERE (p.name, p.id) <= ('Ada', 42)")).isEqualTo(
+				"MATCH (p:`people`) WHERE (p.name <= 'Ada' AND (p.name < 'Ada' OR (p.name = 'Ada' AND p.id <= 42))) RETURN p.name");
+	}
+
+	@Test
+	void groupingKeysThatAreNotSelectedShouldBeProjected() {
+
+		var translator = Translator.with(TranslatorConfig.builder().withPrettyPrint(false).build());
+
+		assertThat(translator.convert("SELECT count(DISTINCT p.name) FROM people p GROUP BY p.city"))
+				.isEqualTo("MATCH (p:`people`) WITH count(DISTINCT p.name) AS count, p.city AS city RETURN count");
+		assertThat(translator.convert("SELECT p.city, max(p.age) FROM people p GROUP BY 1 ORDER BY max(p.age), 1"))
+				.isEqualTo(
+						"MATCH (p:`people`) WITH p.city AS city, max(p.age) AS max RETURN city, max ORDER BY max, city");
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> translator.convert("SELECT count(*) OVER () FROM people p"));
+	}
+
+	@Test
+	void joinColumnMappingsShouldBeUsedAsRelationshipTypes() {
+
+		var translator = Translator.with(TranslatorConfig.builder().withPrettyPrint(false)
+				.withTableToLabelMappings(Map.of("people", "Person", "movies", "Movie"))
+				.withJoinColumnsToTypeMappings(Map.of("people.directed", "HAS_DIRECTED")).build());
+
+		assertThat(translator.convert("SELECT p.name, m.title FROM people p JOIN movies m ON m.id = p.directed"))
+				.isEqualTo("MATCH (p:`Person`)-[:`HAS_DIRECTED`]->(m:`Movie`) RETURN p.name, m.title");
+		assertThat(translator.convert("SELECT p.name, m.title FROM people p JOIN movies m ON m.id = p.acted_in"))
+				.isEqualTo("MATCH (p:`Person`)-[:`ACTED_IN`]->(m:`Movie`) RETURN p.name, m.title");
+	}
+
+	@Test
+	void concurrentConversionsShouldYieldSameResultsAsSequentialOnes() throws Exception {
+
+		var translator = Translator.with(TranslatorConfig.builder().withPrettyPrint(false)
+				.withTableToLabelMappings(Map.of("people", "Person", "movies", "Movie", "movie_actors", "ACTED_IN"))
+				.build());
+		var statements = List.of(
+				"SELECT p.name, upper(p.name) FROM people p WHERE p.age > 17 AND p.name LIKE 'A%' ORDER BY p.name ASC LIMIT 10",
+				"SELECT m.title FROM movies m WHERE m.released BETWEEN 1990 AND 2000 OR m.title IS NULL",
+				"SELECT p.name, m.title FROM people p JOIN movie_actors r ON r.person_id = p.id JOIN movies m ON m.id = r.person_id",
+				"DELETE FROM people p WHERE p.id = 1", "TRUNCATE TABLE movies",
+				"INSERT INTO people (name, age) VALUES ('Ada', 36), ('Grace', 85)");
+		var expected = statements.stream().map(translator::convert).toList();
+
+		int numberOfThreads = 64;
+		int iterations = 250;
+		var executor = Executors.newFixedThreadPool(numberOfThreads);
+		var start = new CountDownLatch(1);
+		try {
+			var futures = new ArrayList<Future<?>>();
+			for (int i = 0; i < numberOfThreads; ++i) {
+				int offset = i;
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int j = 0; j < iterations; ++j) {
+						int idx = (offset + j) % statements.size();
+						assertThat(translator.convert(statements.get(idx))).isEqualTo(expected.get(idx));
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (var future : futures) {
+				future.get(1, TimeUnit.MINUTES);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	static List<TestData> getTestData(Path path) {
 		try (var asciidoctor = Asciidoctor.Factory.create()) {
 			var collector = new TestDataExtractor();